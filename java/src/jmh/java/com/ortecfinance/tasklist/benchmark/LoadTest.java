@@ -0,0 +1,312 @@
+package com.ortecfinance.tasklist.benchmark;
+
+import com.ortecfinance.tasklist.TaskListApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load generator for the REST API. Starts the application in-process on a random port unless {@code --url} points
+ * at a running one, preloads projects and tasks, then runs a weighted mix of requests from a number of concurrent
+ * clients and prints HdrHistogram latency percentiles per endpoint.
+ * <p>
+ * Without {@code --rate} every client sends its next request as soon as the previous one completes. With
+ * {@code --rate} requests are scheduled at fixed intervals and latency is measured from the scheduled time, so a
+ * stalled server is not hidden by clients that stop sending (coordinated omission).
+ * <p>
+ * Options, as {@code --name=value}: url, concurrency (16), duration (30s), warmup (10s), rate (requests per second,
+ * unlimited by default), projects (10), tasks (10000), output (file for the full latency distribution) and mix, which
+ * defaults to {@value #DEFAULT_MIX}. Options with a dot in their name, like {@code --spring.threads.virtual.enabled=true},
+ * are passed on to the in-process application.
+ */
+public final class LoadTest {
+    private static final String DEFAULT_MIX = "by-project=10,by-deadline=10,status=40,deadline=20,add-task=15,add-project=5";
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toMicros(1);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private final URI baseUri;
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final AtomicLong createdProjects = new AtomicLong();
+    private final Operation[] mix;
+    private final int projectCount;
+    private final int taskCount;
+
+    private LoadTest(URI baseUri, Map<String, String> options) {
+        this.baseUri = baseUri;
+        this.options = options;
+        this.mix = parseMix(options.getOrDefault("mix", DEFAULT_MIX));
+        this.projectCount = Integer.parseInt(options.getOrDefault("projects", "10"));
+        this.taskCount = Integer.parseInt(options.getOrDefault("tasks", "10000"));
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_LATENCY, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        ConfigurableApplicationContext application = null;
+        String url = options.get("url");
+        if (url == null) {
+            List<String> applicationArgs = new ArrayList<>(List.of("--server.port=0"));
+            options.forEach((name, value) -> {
+                if (name.contains(".")) {
+                    applicationArgs.add("--" + name + "=" + value);
+                }
+            });
+            application = SpringApplication.run(TaskListApplication.class, applicationArgs.toArray(String[]::new));
+            url = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            new LoadTest(URI.create(url), options).run();
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        Duration warmup = Duration.parse("PT" + options.getOrDefault("warmup", "10s"));
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "30s"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+
+        preload();
+        System.out.printf("Running %s against %s with %d clients%s%n", options.getOrDefault("mix", DEFAULT_MIX),
+                baseUri, concurrency, rate > 0 ? " at " + rate + " requests/s" : "");
+
+        runPhase(concurrency, warmup, rate);
+        intervalHistograms(); //drops the warmup results
+        runPhase(concurrency, duration, rate);
+        report(intervalHistograms(), duration, System.out);
+    }
+
+    private void preload() throws IOException, InterruptedException {
+        for (int i = 0; i < projectCount; i++) {
+            send(HttpRequest.newBuilder(baseUri.resolve("/projects")), "POST", "{\"name\":\"" + projectName(i) + "\"}");
+        }
+
+        StringBuilder batch = new StringBuilder();
+        for (int i = 0; i < taskCount; i++) {
+            batch.append(batch.isEmpty() ? "[" : ",")
+                    .append("{\"projectName\":\"").append(projectName(i % projectCount))
+                    .append("\",\"taskDescription\":\"task ").append(i).append("\"}");
+            if ((i + 1) % 1_000 == 0 || i + 1 == taskCount) {
+                send(HttpRequest.newBuilder(baseUri.resolve("/projects/tasks/batch")), "POST", batch.append(']').toString());
+                batch.setLength(0);
+            }
+        }
+    }
+
+    private void runPhase(int concurrency, Duration duration, double rate) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long interval = rate > 0 ? (long) (concurrency * 1e9 / rate) : 0;
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int client = 0; client < concurrency; client++) {
+            long offset = interval * client / concurrency; //spreads the clients evenly over one interval
+            clients.execute(() -> runClient(start + offset, end, interval));
+        }
+        clients.shutdown();
+        clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+    }
+
+    private void runClient(long start, long end, long interval) {
+        long scheduled = start;
+        while (true) {
+            long now = System.nanoTime();
+            if (interval > 0) {
+                if (scheduled >= end) {
+                    return;
+                }
+                if (scheduled > now) {
+                    LockSupport.parkNanos(scheduled - now);
+                }
+            } else {
+                if (now >= end) {
+                    return;
+                }
+                scheduled = now;
+            }
+
+            Operation operation = mix[ThreadLocalRandom.current().nextInt(mix.length)];
+            boolean failed;
+            try {
+                failed = send(request(operation), operation.method, body(operation)) >= 400;
+            } catch (IOException exception) {
+                failed = true;
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            recorders.get(operation).recordValue(Math.min(HIGHEST_LATENCY, (System.nanoTime() - scheduled) / 1_000));
+            if (failed) {
+                errors.get(operation).increment();
+            }
+            scheduled += interval;
+        }
+    }
+
+    private HttpRequest.Builder request(Operation operation) {
+        String path = switch (operation) {
+            case ADD_PROJECT -> "/projects";
+            case ADD_TASK -> "/projects/" + URLEncoder.encode(projectName(random(projectCount)), StandardCharsets.UTF_8) + "/tasks";
+            case BY_PROJECT -> "/tasks/by-project";
+            case BY_DEADLINE -> "/tasks/by-deadline";
+            case STATUS -> "/tasks/" + (random(taskCount) + 1) + "/status";
+            case DEADLINE -> "/tasks/" + (random(taskCount) + 1) + "/deadline";
+        };
+        return HttpRequest.newBuilder(baseUri.resolve(path));
+    }
+
+    private String body(Operation operation) {
+        return switch (operation) {
+            case ADD_PROJECT -> "{\"name\":\"load-" + createdProjects.incrementAndGet() + "\"}";
+            case ADD_TASK -> "{\"taskDescription\":\"added under load\"}";
+            case STATUS -> "{\"done\":" + ThreadLocalRandom.current().nextBoolean() + "}";
+            case DEADLINE -> "{\"dueDate\":\"" + LocalDate.of(2026, 1, 1).plusDays(random(365)).format(DATE_FORMAT) + "\"}";
+            case BY_PROJECT, BY_DEADLINE -> null;
+        };
+    }
+
+    private int send(HttpRequest.Builder request, String method, String body) throws IOException, InterruptedException {
+        HttpRequest.BodyPublisher publisher = body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body);
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        return client.send(request.method(method, publisher).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private Map<Operation, Histogram> intervalHistograms() {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        return histograms;
+    }
+
+    private void report(Map<Operation, Histogram> histograms, Duration duration, PrintStream out) throws IOException {
+        Histogram total = new Histogram(HIGHEST_LATENCY, 3);
+        out.printf("%n%-12s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() > 0) {
+                printRow(out, operation.label, histogram, errors.get(operation).sum(), duration);
+                total.add(histogram);
+            }
+        }
+        printRow(out, "total", total, errors.values().stream().mapToLong(LongAdder::sum).sum(), duration);
+
+        String output = options.get("output");
+        if (output != null) {
+            try (PrintStream file = new PrintStream(Files.newOutputStream(Path.of(output)))) {
+                total.outputPercentileDistribution(file, 1_000.0); //in milliseconds
+            }
+        }
+    }
+
+    private static void printRow(PrintStream out, String label, Histogram histogram, long errors, Duration duration) {
+        out.printf("%-12s %10d %8d %10.0f %9.2f %9.2f %9.2f %9.2f %9.2f%n", label, histogram.getTotalCount(), errors,
+                histogram.getTotalCount() / (duration.toMillis() / 1_000.0),
+                histogram.getValueAtPercentile(50) / 1_000.0, histogram.getValueAtPercentile(90) / 1_000.0,
+                histogram.getValueAtPercentile(99) / 1_000.0, histogram.getValueAtPercentile(99.9) / 1_000.0,
+                histogram.getMaxValue() / 1_000.0);
+    }
+
+    private static String projectName(int index) {
+        return "project-" + index;
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    /**
+     * Expands a mix like {@code status=40,by-project=10} into a table to draw operations from uniformly.
+     */
+    private static Operation[] parseMix(String mix) {
+        List<Operation> table = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] nameWeight = entry.split("=", 2);
+            Operation operation = Operation.byLabel(nameWeight[0].trim());
+            int weight = nameWeight.length > 1 ? Integer.parseInt(nameWeight[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("The mix must contain at least one operation.");
+        }
+        return table.toArray(Operation[]::new);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got \"" + arg + "\".");
+            }
+            String[] nameValue = arg.substring(2).split("=", 2);
+            options.put(nameValue[0], nameValue[1]);
+        }
+        return options;
+    }
+
+    private enum Operation {
+        ADD_PROJECT("add-project", "POST"),
+        ADD_TASK("add-task", "POST"),
+        BY_PROJECT("by-project", "GET"),
+        BY_DEADLINE("by-deadline", "GET"),
+        STATUS("status", "PUT"),
+        DEADLINE("deadline", "PUT");
+
+        private final String label;
+        private final String method;
+
+        Operation(String label, String method) {
+            this.label = label;
+            this.method = method;
+        }
+
+        static Operation byLabel(String label) {
+            for (Operation operation : values()) {
+                if (operation.label.equals(label)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation \"" + label + "\".");
+        }
+    }
+}
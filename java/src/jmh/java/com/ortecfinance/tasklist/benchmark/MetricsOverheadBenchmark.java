@@ -0,0 +1,67 @@
+package com.ortecfinance.tasklist.benchmark;
+
+import com.ortecfinance.tasklist.application.ChangeFeed;
+import com.ortecfinance.tasklist.application.TaskListService;
+import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import com.ortecfinance.tasklist.domain.task.Task;
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+import com.ortecfinance.tasklist.domain.task.TaskStorage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the instrumentation on the hottest paths: the same operations with a registry that drops everything
+ * ({@code noop}) and with the Prometheus registry the application uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    private static final int TASKS = 100_000;
+
+    @Param({"noop", "prometheus"})
+    public String registry;
+
+    private TaskRepository taskRepository;
+    private TaskListService taskListService;
+
+    @Setup(Level.Trial)
+    public void createTaskList() {
+        MeterRegistry meterRegistry = registry.equals("noop")
+                ? new CompositeMeterRegistry() //without child registries every meter is a no-op
+                : new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        ProjectRepository projectRepository = new ProjectRepository(meterRegistry);
+        taskRepository = new TaskRepository(TaskStorage.onHeap(), meterRegistry);
+        taskListService = new TaskListService(taskRepository, projectRepository, meterRegistry, new ChangeFeed());
+
+        Project project = projectRepository.create("benchmark");
+        for (int i = 0; i < TASKS; i++) {
+            taskRepository.save(new Task(taskRepository.nextId(), project.getId(), "task " + i));
+        }
+    }
+
+    @Benchmark
+    public Optional<Task> findTaskById() {
+        return taskRepository.findById(randomTaskId());
+    }
+
+    @Benchmark
+    public void changeStatusOnTask() {
+        taskListService.changeStatusOnTask(randomTaskId(), ThreadLocalRandom.current().nextBoolean());
+    }
+
+    private static long randomTaskId() {
+        return ThreadLocalRandom.current().nextLong(1, TASKS + 1);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ortecfinance.tasklist.benchmark;
+
+import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.domain.task.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups by key. The contended group reads while another thread keeps changing tasks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class RepositoryBenchmark {
+
+    @Benchmark
+    public Optional<Task> findTaskById(TaskListState state) {
+        return state.taskRepository.findById(state.randomTaskId());
+    }
+
+    @Benchmark
+    public Optional<Project> findProjectByName(TaskListState state) {
+        return state.projectRepository.findByName(state.randomProjectName());
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public Optional<Task> findTaskByIdWhileWriting(TaskListState state) {
+        return state.taskRepository.findById(state.randomTaskId());
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void changeStatus(TaskListState state) {
+        state.toggleRandomTask();
+    }
+}
@@ -0,0 +1,58 @@
+package com.ortecfinance.tasklist.benchmark;
+
+import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.domain.task.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grouped listings, both served from the cached view and rebuilt after a change. The contended group reads while
+ * another thread keeps changing tasks, so readers see a mix of both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ServiceBenchmark {
+
+    @Benchmark
+    public Map<Project, List<Task>> tasksGroupedByProject(TaskListState state) {
+        return state.taskListService.getAllTasksGroupedByProject();
+    }
+
+    @Benchmark
+    public Map<LocalDate, List<Task>> tasksGroupedByDueDate(TaskListState state) {
+        return state.taskListService.getAllTasksGroupedByDueDate();
+    }
+
+    @Benchmark
+    public Map<Project, List<Task>> tasksGroupedByProjectAfterChange(TaskListState state) {
+        state.toggleRandomTask();
+        return state.taskListService.getAllTasksGroupedByProject();
+    }
+
+    @Benchmark
+    public Map<LocalDate, List<Task>> tasksGroupedByDueDateAfterChange(TaskListState state) {
+        state.toggleRandomTask();
+        return state.taskListService.getAllTasksGroupedByDueDate();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public Map<Project, List<Task>> tasksGroupedByProjectWhileWriting(TaskListState state) {
+        return state.taskListService.getAllTasksGroupedByProject();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void changeStatus(TaskListState state) {
+        state.toggleRandomTask();
+    }
+}
@@ -0,0 +1,75 @@
+package com.ortecfinance.tasklist.benchmark;
+
+import com.ortecfinance.tasklist.application.TaskListService;
+import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import com.ortecfinance.tasklist.domain.task.Task;
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Task list shared by all benchmark threads. Tasks are spread round-robin over the projects and over a year of
+ * deadlines, with every tenth task left without one.
+ */
+@State(Scope.Benchmark)
+public class TaskListState {
+    private static final LocalDate FIRST_DEADLINE = LocalDate.of(2026, 1, 1);
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int taskCount;
+
+    @Param({"10", "1000", "100000"})
+    public int projectCount;
+
+    public TaskRepository taskRepository;
+    public ProjectRepository projectRepository;
+    public TaskListService taskListService;
+    public String[] projectNames;
+
+    @Setup(Level.Trial)
+    public void createTaskList() {
+        taskRepository = new TaskRepository();
+        projectRepository = new ProjectRepository();
+        taskListService = new TaskListService(taskRepository, projectRepository);
+
+        projectNames = new String[projectCount];
+        List<Project> projects = new ArrayList<>(projectCount);
+        for (int i = 0; i < projectCount; i++) {
+            projectNames[i] = "project-" + i;
+            projects.add(projectRepository.create(projectNames[i]));
+        }
+
+        List<Task> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < taskCount; i++) {
+            LocalDate dueDate = i % 10 == 0 ? null : FIRST_DEADLINE.plusDays(i % 365);
+            batch.add(new Task(taskRepository.nextId(), projects.get(i % projectCount).getId(), "task " + i, false, dueDate));
+            if (batch.size() == 10_000) {
+                taskRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        taskRepository.saveAll(batch);
+    }
+
+    public long randomTaskId() {
+        return ThreadLocalRandom.current().nextLong(1, taskCount + 1);
+    }
+
+    public String randomProjectName() {
+        return projectNames[ThreadLocalRandom.current().nextInt(projectCount)];
+    }
+
+    public void toggleRandomTask() {
+        Task task = taskRepository.findById(randomTaskId()).orElseThrow();
+        taskRepository.changeStatus(task, !task.isDone());
+    }
+}
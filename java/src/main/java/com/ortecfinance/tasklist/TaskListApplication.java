@@ -1,14 +1,32 @@
 package com.ortecfinance.tasklist;
 
 import com.ortecfinance.tasklist.api.cli.ApplicationCliRunner;
+import com.ortecfinance.tasklist.api.cli.BatchRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 @SpringBootApplication
 public class TaskListApplication {
+    private static final String REACTIVE = "--reactive";
+    private static final String BATCH = "--batch";
 
-    public static void main(String[] args) {
-        if (args.length > 0) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals(REACTIVE)) {
+            new SpringApplicationBuilder(TaskListApplication.class)
+                    .web(WebApplicationType.REACTIVE)
+                    .run(Arrays.copyOfRange(args, 1, args.length));
+            System.out.println("localhost:8080/tasks (reactive)");
+        }
+        else if (args.length > 0 && args[0].equals(BATCH)) {
+            BatchRunner.startBatch(args.length > 1 ? Path.of(args[1]) : null);
+        }
+        else if (args.length > 0) {
             System.out.println("Starting console Application");
             ApplicationCliRunner.startConsole();
         }
@@ -0,0 +1,32 @@
+package com.ortecfinance.tasklist.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.ortecfinance.tasklist.domain.project.Project;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Writes maps keyed by {@link Project}, such as the tasks grouped by project, with the project names as keys. Both the
+ * servlet and the reactive variant use the object mapper Spring Boot configures with this module.
+ */
+@Configuration
+public class JacksonConfiguration {
+
+    @Bean
+    public Module projectKeys() {
+        return new SimpleModule("project-keys").addKeySerializer(Project.class, new ProjectKeySerializer());
+    }
+
+    private static final class ProjectKeySerializer extends JsonSerializer<Project> {
+        @Override
+        public void serialize(Project project, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeFieldName(project.getName());
+        }
+    }
+}
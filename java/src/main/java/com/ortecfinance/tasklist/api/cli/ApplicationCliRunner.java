@@ -5,6 +5,7 @@ import com.ortecfinance.tasklist.domain.project.Project;
 import com.ortecfinance.tasklist.domain.project.ProjectRepository;
 import com.ortecfinance.tasklist.domain.task.Task;
 import com.ortecfinance.tasklist.domain.task.TaskRepository;
+import com.ortecfinance.tasklist.exceptions.DuplicateRecordException;
 import com.ortecfinance.tasklist.exceptions.RecordNotFoundException;
 
 import java.io.BufferedReader;
@@ -18,11 +19,13 @@ import java.util.*;
 public final class ApplicationCliRunner implements Runnable {
     public static final String PROMPT = "> ";
     private static final String QUIT = "quit";
+    private static final int SEARCH_LIMIT = 20;
 
     private final Map<String, List<Task>> tasks = new LinkedHashMap<>(); //TODO: replace with repository
     private final TaskListService taskListService;
     private final BufferedReader in;
-    private final PrintWriter out;
+    private final ConsoleOutput out;
+    private final boolean interactive;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
     private long lastId = 0;
@@ -30,36 +33,51 @@ public final class ApplicationCliRunner implements Runnable {
     public static void startConsole() {
         BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
         PrintWriter out = new PrintWriter(System.out);
-        new ApplicationCliRunner(new TaskListService(TaskRepository.getInstance(), ProjectRepository.getInstance()), in, out).run();
+        boolean interactive = System.console() != null; //no terminal on either side, e.g. a piped script
+        new ApplicationCliRunner(new TaskListService(TaskRepository.getInstance(), ProjectRepository.getInstance()), in, out, interactive).run();
     }
 
     public ApplicationCliRunner(TaskListService taskListService, BufferedReader reader, PrintWriter writer) {
+        this(taskListService, reader, writer, true);
+    }
+
+    /**
+     * Without {@code interactive} no prompts are printed. Either way output is flushed once all commands read so far
+     * are executed, rather than after every command.
+     */
+    public ApplicationCliRunner(TaskListService taskListService, BufferedReader reader, PrintWriter writer, boolean interactive) {
         this.taskListService = taskListService;
         this.in = reader;
-        this.out = writer;
+        this.out = new ConsoleOutput(writer);
+        this.interactive = interactive;
     }
 
     public void run() {
-        out.println("Welcome to TaskList! Type 'help' for available commands.");
-        while (true) {
-            out.print(PROMPT);
-            out.flush();
-            String command;
-            try {
-                command = in.readLine();
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-            if (command.equals(QUIT)) {
-                break;
+        out.line("Welcome to TaskList! Type 'help' for available commands.");
+        try {
+            while (true) {
+                if (interactive) {
+                    out.append(PROMPT);
+                }
+                if (!in.ready()) {
+                    out.flush();
+                }
+                String command = in.readLine();
+                if (command == null || command.equals(QUIT)) {
+                    break;
+                }
+                execute(command);
             }
-            execute(command);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            out.flush();
         }
     }
 
-    private void execute(String commandLine) {
-        String[] commandRest = commandLine.split(" ", 2);
-        String command = commandRest[0];
+    private void execute(String line) {
+        CommandLine commandLine = new CommandLine(line);
+        String command = commandLine.next();
         switch (command) {
             case "show":
                 show();
@@ -67,17 +85,23 @@ public final class ApplicationCliRunner implements Runnable {
             case "show-by-deadline":
                 showByDueDate();
                 break;
+            case "show-due":
+                showDue(commandLine);
+                break;
+            case "search":
+                search(commandLine.rest());
+                break;
             case "add":
-                add(commandRest[1]);
+                add(commandLine);
                 break;
             case "check":
-                check(commandRest[1]);
+                check(commandLine);
                 break;
             case "uncheck":
-                uncheck(commandRest[1]);
+                uncheck(commandLine);
                 break;
             case "deadline":
-                deadline(commandRest[1]);
+                deadline(commandLine);
                 break;
             case "help":
                 help();
@@ -92,103 +116,131 @@ public final class ApplicationCliRunner implements Runnable {
         Map<Project, List<Task>> tasks = taskListService.getAllTasksGroupedByProject();
 
         for (Map.Entry<Project, List<Task>> project : tasks.entrySet()) {
-            out.println(project.getKey().getName());
-            for (Task task : project.getValue()) {
-                out.printf("    [%c] %d: %s%n", (task.isDone() ? 'x' : ' '), task.getId(), task.getDescription());
-            }
-            out.println();
+            out.line(project.getKey().getName());
+            project.getValue().forEach(this::printTask);
+            out.endLine();
         }
     }
 
     private void showByDueDate() {
-        Map<LocalDate, List<Task>> tasksByDate = taskListService.getAllTasksGroupedByDueDate();
+        printByDueDate(taskListService.getAllTasksGroupedByDueDate());
+    }
+
+    private void showDue(CommandLine commandLine) {
+        String from = commandLine.next();
+        String to = commandLine.next();
+        Boolean done = null;
+        if (commandLine.nextIs("done")) {
+            done = true;
+        } else if (commandLine.nextIs("open")) {
+            done = false;
+        }
+        String projectName = commandLine.hasNext() ? commandLine.rest() : null;
+
+        try {
+            printByDueDate(taskListService.getTasksDueBetween(
+                    LocalDate.parse(from, formatter), LocalDate.parse(to, formatter), projectName, done));
+        } catch (Exception exception) {
+            out.line(exception.getMessage());
+        }
+    }
 
+    private void printByDueDate(Map<LocalDate, List<Task>> tasksByDate) {
         for (Map.Entry<LocalDate, List<Task>> entry : tasksByDate.entrySet()) {
             LocalDate date = entry.getKey();
 
-            if (date.equals(LocalDate.MAX)) {
-                out.println("No deadline:");
+            if (date.equals(TaskRepository.NO_DEADLINE)) {
+                out.line("No deadline:");
             } else {
-                out.println(date.format(formatter) + ":");
+                out.appendDate(date).append(':').endLine();
             }
 
             for (Task task : entry.getValue()) {
-                out.println("       " + task.getId() + ": " + task.getDescription());
+                out.append("       ").append(task.getId()).append(": ").append(task.getDescription()).endLine();
             }
         }
-        out.println();
+        out.endLine();
     }
 
-    private void add(String commandLine) {
-        String[] subcommandRest = commandLine.split(" ", 2);
-        String subcommand = subcommandRest[0];
-        if (subcommand.equals("project")) {
-            addProject(subcommandRest[1]);
-        } else if (subcommand.equals("task")) {
-            String[] projectTask = subcommandRest[1].split(" ", 2);
-            addTask(projectTask[0], projectTask[1]);
+    private void search(String query) {
+        taskListService.searchTasks(query, SEARCH_LIMIT).forEach(this::printTask);
+        out.endLine();
+    }
+
+    private void printTask(Task task) {
+        out.append("    [").append(task.isDone() ? 'x' : ' ').append("] ")
+                .append(task.getId()).append(": ").append(task.getDescription()).endLine();
+    }
+
+    private void add(CommandLine commandLine) {
+        if (commandLine.nextIs("project")) {
+            addProject(commandLine.rest());
+        } else if (commandLine.nextIs("task")) {
+            String projectName = commandLine.next();
+            addTask(projectName, commandLine.rest());
         }
     }
 
     private void addProject(String name) {
-        taskListService.createProject(name);
+        try {
+            taskListService.createProject(name);
+        } catch (DuplicateRecordException exception) {
+            out.line(exception.getMessage());
+        }
     }
 
     private void addTask(String projectName, String taskDescription) {
         try {
             taskListService.addTaskToProject(projectName, taskDescription);
         } catch(RecordNotFoundException exception) {
-            out.printf(exception.getMessage());
-            out.println();
+            out.line(exception.getMessage());
         }
     }
 
-    private void deadline(String commandLine) {
-        String[] commandDetails = commandLine.split(" ", 2);
-        int id = Integer.parseInt(commandDetails[0]);
-        LocalDate dueDate = LocalDate.parse(commandDetails[1], formatter);
+    private void deadline(CommandLine commandLine) {
+        long id = commandLine.nextLong();
+        LocalDate dueDate = LocalDate.parse(commandLine.rest(), formatter);
 
         try {
             taskListService.setDeadlineOnTask(id, dueDate);
         } catch (Exception exception) {
-            out.printf(exception.getMessage());
-            out.println();
+            out.line(exception.getMessage());
         }
     }
 
-    private void check(String idString) {
-        setDone(idString, true);
+    private void check(CommandLine commandLine) {
+        setDone(commandLine, true);
     }
 
-    private void uncheck(String idString) {
-        setDone(idString, false);
+    private void uncheck(CommandLine commandLine) {
+        setDone(commandLine, false);
     }
 
-    private void setDone(String idString, boolean done) {
-        int id = Integer.parseInt(idString);
+    private void setDone(CommandLine commandLine, boolean done) {
+        long id = commandLine.nextLong();
         try {
             taskListService.changeStatusOnTask(id, done);
         } catch(RecordNotFoundException exception) {
-            out.printf(exception.getMessage());
-            out.println();
+            out.line(exception.getMessage());
         }
     }
 
     private void help() {
-        out.println("Commands:");
-        out.println("  show");
-        out.println("  show-by-deadline");
-        out.println("  add project <project name>");
-        out.println("  add task <project name> <task description>");
-        out.println("  deadline <ID> <date (format: DD-MM-YYYY)>");
-        out.println("  check <task ID>");
-        out.println("  uncheck <task ID>");
-        out.println();
+        out.line("Commands:");
+        out.line("  show");
+        out.line("  show-by-deadline");
+        out.line("  show-due <from date> <to date> [done|open] [project name]");
+        out.line("  search <words>");
+        out.line("  add project <project name>");
+        out.line("  add task <project name> <task description>");
+        out.line("  deadline <ID> <date (format: DD-MM-YYYY)>");
+        out.line("  check <task ID>");
+        out.line("  uncheck <task ID>");
+        out.endLine();
     }
 
     private void error(String command) {
-        out.printf("I don't know what the command \"%s\" is.", command);
-        out.println();
+        out.append("I don't know what the command \"").append(command).append("\" is.").endLine();
     }
 
     private long nextId() {
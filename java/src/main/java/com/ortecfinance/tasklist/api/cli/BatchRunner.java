@@ -0,0 +1,327 @@
+package com.ortecfinance.tasklist.api.cli;
+
+import com.ortecfinance.tasklist.application.BatchResult;
+import com.ortecfinance.tasklist.application.DeadlineChange;
+import com.ortecfinance.tasklist.application.NewTask;
+import com.ortecfinance.tasklist.application.StatusChange;
+import com.ortecfinance.tasklist.application.TaskListService;
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+import com.ortecfinance.tasklist.exceptions.DuplicateRecordException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs a script of console commands without prompts. Consecutive commands of the same kind are handed to
+ * {@link TaskListService} as one batch. Commands between {@code begin} and {@code commit} form a group that is
+ * checked as a whole first and is only applied if every command in it can succeed; {@code rollback} discards the
+ * group. Groups are validated, not atomic: a command that still fails while the group is applied, for instance
+ * because another client changed the task list in between, does not undo the ones before it. Such a group is
+ * reported as partly applied. Within a group, tasks are referred to by the ids they had before the group started.
+ * Empty lines and lines starting with {@code #} are skipped, {@code quit} ends the script.
+ */
+public final class BatchRunner implements Runnable {
+    private static final String QUIT = "quit";
+
+    private final TaskListService taskListService;
+    private final BufferedReader in;
+    private final ConsoleOutput out;
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private final List<Command> pending = new ArrayList<>();
+    private List<Command> group;
+    private int groupLine;
+    private final Map<Kind, Totals> totals = new EnumMap<>(Kind.class);
+    private int failures;
+    private int groupsCommitted;
+    private int groupsPartlyApplied;
+    private int groupsRejected;
+
+    /**
+     * Runs the script in {@code file}, or the commands on standard input when it is {@code null}.
+     */
+    public static void startBatch(Path file) throws IOException {
+        BufferedReader in = file == null
+                ? new BufferedReader(new InputStreamReader(System.in))
+                : Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        PrintWriter out = new PrintWriter(System.out);
+        try (in) {
+            new BatchRunner(new TaskListService(TaskRepository.getInstance(), ProjectRepository.getInstance()), in, out).run();
+        }
+    }
+
+    public BatchRunner(TaskListService taskListService, BufferedReader reader, PrintWriter writer) {
+        this.taskListService = taskListService;
+        this.in = reader;
+        this.out = new ConsoleOutput(writer);
+        for (Kind kind : Kind.values()) {
+            totals.put(kind, new Totals());
+        }
+    }
+
+    public void run() {
+        long start = System.nanoTime();
+        int lineNumber = 0;
+        try {
+            for (String line = in.readLine(); line != null && !line.equals(QUIT); line = in.readLine()) {
+                lineNumber++;
+                execute(line, lineNumber);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (group != null) {
+            reject("The group started at line " + groupLine + " was not committed.");
+        }
+        flush();
+        summarize(lineNumber, System.nanoTime() - start);
+        out.flush();
+    }
+
+    private void execute(String line, int lineNumber) {
+        CommandLine commandLine = new CommandLine(line);
+        if (!commandLine.hasNext() || line.charAt(0) == '#') {
+            return;
+        }
+
+        if (commandLine.nextIs("begin")) {
+            if (group != null) {
+                fail(lineNumber, "Groups cannot be nested, the group started at line " + groupLine + " is still open.");
+                return;
+            }
+            flush();
+            group = new ArrayList<>();
+            groupLine = lineNumber;
+        } else if (commandLine.nextIs("commit")) {
+            commit(lineNumber);
+        } else if (commandLine.nextIs("rollback")) {
+            if (group == null) {
+                fail(lineNumber, "There is no group to roll back.");
+                return;
+            }
+            group = null;
+        } else {
+            Command command;
+            try {
+                command = parse(commandLine, lineNumber);
+            } catch (IllegalArgumentException | DateTimeParseException exception) {
+                if (group != null) {
+                    group.add(new Command(lineNumber, null, exception.getMessage()));
+                } else {
+                    fail(lineNumber, exception.getMessage());
+                }
+                return;
+            }
+            if (group != null) {
+                group.add(command);
+            } else {
+                enqueue(command);
+            }
+        }
+    }
+
+    private Command parse(CommandLine commandLine, int lineNumber) {
+        String command = commandLine.next();
+        switch (command) {
+            case "add":
+                if (commandLine.nextIs("project")) {
+                    return new Command(lineNumber, Kind.ADD_PROJECT, commandLine.rest());
+                } else if (commandLine.nextIs("task")) {
+                    String projectName = commandLine.next();
+                    return new Command(lineNumber, Kind.ADD_TASK, new NewTask(projectName, commandLine.rest()));
+                }
+                throw new IllegalArgumentException("Expected \"add project\" or \"add task\".");
+            case "check":
+            case "uncheck":
+                return new Command(lineNumber, Kind.STATUS, new StatusChange(commandLine.nextLong(), command.equals("check")));
+            case "deadline":
+                long id = commandLine.nextLong();
+                return new Command(lineNumber, Kind.DEADLINE, new DeadlineChange(id, LocalDate.parse(commandLine.rest(), formatter)));
+            default:
+                throw new IllegalArgumentException("I don't know what the command \"" + command + "\" is in batch mode.");
+        }
+    }
+
+    private void commit(int lineNumber) {
+        if (group == null) {
+            fail(lineNumber, "There is no group to commit.");
+            return;
+        }
+        List<Command> commands = group;
+        group = null;
+
+        String problem = check(commands);
+        if (problem != null) {
+            reject("The group started at line " + groupLine + " was not applied, " + problem);
+            failures += commands.size();
+            return;
+        }
+        int failuresBefore = failures;
+        try {
+            commands.forEach(this::enqueue);
+            flush();
+        } catch (RuntimeException exception) {
+            fail(lineNumber, exception.getMessage());
+        }
+        if (failures == failuresBefore) {
+            groupsCommitted++;
+        } else {
+            groupsPartlyApplied++;
+            out.line("The group started at line " + groupLine + " was only partly applied.");
+        }
+    }
+
+    /**
+     * The first reason a command of the group would fail, or {@code null} if they can all be applied.
+     */
+    private String check(List<Command> commands) {
+        Set<String> newProjects = new HashSet<>();
+        for (Command command : commands) {
+            String problem = switch (command.kind()) {
+                case null -> (String) command.argument();
+                case ADD_PROJECT -> {
+                    String name = (String) command.argument();
+                    yield taskListService.projectExists(name) || !newProjects.add(name)
+                            ? "a project with the name \"" + name + "\" already exists." : null;
+                }
+                case ADD_TASK -> {
+                    String name = ((NewTask) command.argument()).projectName();
+                    yield taskListService.projectExists(name) || newProjects.contains(name)
+                            ? null : "could not find a project with the name \"" + name + "\".";
+                }
+                case STATUS -> taskProblem(((StatusChange) command.argument()).taskId());
+                case DEADLINE -> taskProblem(((DeadlineChange) command.argument()).taskId());
+            };
+            if (problem != null) {
+                return "line " + command.line() + ": " + problem;
+            }
+        }
+        return null;
+    }
+
+    private String taskProblem(long taskId) {
+        return taskListService.taskExists(taskId) ? null : "could not find a task with an ID of " + taskId + ".";
+    }
+
+    private void enqueue(Command command) {
+        if (!pending.isEmpty() && (pending.get(0).kind() != command.kind() || pending.size() == TaskListService.MAX_BATCH_SIZE)) {
+            flush(); //later commands may depend on earlier ones, so kinds are never reordered
+        }
+        pending.add(command);
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Kind kind = pending.get(0).kind();
+        long start = System.nanoTime();
+        try {
+            switch (kind) {
+                case ADD_PROJECT -> pending.forEach(this::createProject);
+                case ADD_TASK -> report(taskListService.addTasksToProjects(arguments(NewTask.class)));
+                case STATUS -> report(taskListService.changeStatusOnTasks(arguments(StatusChange.class)));
+                case DEADLINE -> report(taskListService.setDeadlineOnTasks(arguments(DeadlineChange.class)));
+            }
+            totals.get(kind).add(pending.size(), System.nanoTime() - start);
+        } finally {
+            pending.clear();
+        }
+    }
+
+    private void createProject(Command command) {
+        try {
+            taskListService.createProject((String) command.argument());
+        } catch (DuplicateRecordException exception) {
+            fail(command.line(), exception.getMessage());
+        }
+    }
+
+    private <T> List<T> arguments(Class<T> type) {
+        List<T> arguments = new ArrayList<>(pending.size());
+        for (Command command : pending) {
+            arguments.add(type.cast(command.argument()));
+        }
+        return arguments;
+    }
+
+    private void report(List<BatchResult> results) {
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).error() != null) {
+                fail(pending.get(i).line(), results.get(i).error());
+            }
+        }
+    }
+
+    private void fail(int lineNumber, String message) {
+        failures++;
+        out.append("Line ").append(lineNumber).append(": ").append(message).endLine();
+    }
+
+    private void reject(String message) {
+        groupsRejected++;
+        out.line(message);
+    }
+
+    private void summarize(int lines, long nanos) {
+        out.append("Ran ").append(lines).append(" lines in ").append(nanos / 1_000_000).append(" ms, ")
+                .append(failures).append(" failed. Groups: ")
+                .append(groupsCommitted).append(" committed, ").append(groupsPartlyApplied).append(" partly applied, ")
+                .append(groupsRejected).append(" rejected.").endLine();
+        totals.forEach((kind, total) -> {
+            if (total.commands > 0) {
+                out.append("    ").append(kind.label).append(": ").append(total.commands).append(" commands in ")
+                        .append(total.batches).append(" batches, ").append(total.nanos / 1_000_000).append(" ms").endLine();
+            }
+        });
+    }
+
+    private enum Kind {
+        ADD_PROJECT("add project"),
+        ADD_TASK("add task"),
+        STATUS("check/uncheck"),
+        DEADLINE("deadline");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * A parsed command; a {@code null} kind marks a line that could not be parsed, with the reason as argument.
+     */
+    private record Command(int line, Kind kind, Object argument) {
+    }
+
+    private static final class Totals {
+        private int commands;
+        private int batches;
+        private long nanos;
+
+        void add(int commands, long nanos) {
+            this.commands += commands;
+            this.batches++;
+            this.nanos += nanos;
+        }
+    }
+}
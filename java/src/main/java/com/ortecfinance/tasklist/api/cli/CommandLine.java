@@ -0,0 +1,73 @@
+package com.ortecfinance.tasklist.api.cli;
+
+/**
+ * Walks a command line word by word in a single pass. Words are only copied when asked for as a string; numbers are
+ * parsed in place.
+ */
+final class CommandLine {
+    private final String line;
+    private int position;
+
+    CommandLine(String line) {
+        this.line = line;
+        skipSpaces();
+    }
+
+    boolean hasNext() {
+        return position < line.length();
+    }
+
+    /**
+     * The next word, or an empty string at the end of the line.
+     */
+    String next() {
+        int start = position;
+        int end = line.indexOf(' ', start);
+        if (end < 0) {
+            end = line.length();
+        }
+        position = end;
+        skipSpaces();
+        return line.substring(start, end);
+    }
+
+    /**
+     * Consumes the next word if it is {@code word}.
+     */
+    boolean nextIs(String word) {
+        int end = position + word.length();
+        if (!line.startsWith(word, position) || (end < line.length() && line.charAt(end) != ' ')) {
+            return false;
+        }
+        position = end;
+        skipSpaces();
+        return true;
+    }
+
+    long nextLong() {
+        int start = position;
+        int end = line.indexOf(' ', start);
+        if (end < 0) {
+            end = line.length();
+        }
+        long value = Long.parseLong(line, start, end, 10);
+        position = end;
+        skipSpaces();
+        return value;
+    }
+
+    /**
+     * Everything after the current word, spaces included, or an empty string at the end of the line.
+     */
+    String rest() {
+        String rest = line.substring(position);
+        position = line.length();
+        return rest;
+    }
+
+    private void skipSpaces() {
+        while (position < line.length() && line.charAt(position) == ' ') {
+            position++;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ortecfinance.tasklist.api.cli;
+
+import java.io.PrintWriter;
+import java.time.LocalDate;
+
+/**
+ * Builds console output in a reusable buffer that is only handed to the writer on {@link #flush()}, or once it grows
+ * past {@value #WRITE_THRESHOLD} characters so a large listing does not have to fit in memory.
+ */
+final class ConsoleOutput {
+    private static final int WRITE_THRESHOLD = 64 * 1024;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final PrintWriter writer;
+    private final StringBuilder buffer = new StringBuilder(WRITE_THRESHOLD + 1024);
+    private char[] chars = new char[0];
+
+    ConsoleOutput(PrintWriter writer) {
+        this.writer = writer;
+    }
+
+    ConsoleOutput append(String text) {
+        buffer.append(text);
+        return this;
+    }
+
+    ConsoleOutput append(char c) {
+        buffer.append(c);
+        return this;
+    }
+
+    ConsoleOutput append(long number) {
+        buffer.append(number);
+        return this;
+    }
+
+    /**
+     * Appends the date as DD-MM-YYYY.
+     */
+    ConsoleOutput appendDate(LocalDate date) {
+        appendPadded(date.getDayOfMonth(), 2).append('-');
+        appendPadded(date.getMonthValue(), 2).append('-');
+        return appendPadded(date.getYear(), 4);
+    }
+
+    ConsoleOutput line(String text) {
+        return append(text).endLine();
+    }
+
+    ConsoleOutput endLine() {
+        buffer.append(LINE_SEPARATOR);
+        if (buffer.length() > WRITE_THRESHOLD) {
+            write();
+        }
+        return this;
+    }
+
+    void flush() {
+        write();
+        writer.flush();
+    }
+
+    private ConsoleOutput appendPadded(int number, int width) {
+        for (int limit = 10, digits = 1; digits < width; limit *= 10, digits++) {
+            if (number >= 0 && number < limit) {
+                buffer.append('0');
+            }
+        }
+        buffer.append(number);
+        return this;
+    }
+
+    private void write() {
+        int length = buffer.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, WRITE_THRESHOLD + 1024)];
+        }
+        buffer.getChars(0, length, chars, 0); //appending the builder itself would copy it into a new string first
+        writer.write(chars, 0, length);
+        buffer.setLength(0);
+    }
+}
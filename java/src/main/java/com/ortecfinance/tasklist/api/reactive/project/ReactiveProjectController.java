@@ -0,0 +1,64 @@
+package com.ortecfinance.tasklist.api.reactive.project;
+
+import com.ortecfinance.tasklist.api.rest.project.dto.BatchCreateTaskRequest;
+import com.ortecfinance.tasklist.api.rest.project.dto.CreateProjectRequest;
+import com.ortecfinance.tasklist.api.rest.project.dto.CreateTaskRequest;
+import com.ortecfinance.tasklist.application.BatchResult;
+import com.ortecfinance.tasklist.application.NewTask;
+import com.ortecfinance.tasklist.application.TaskListService;
+import com.ortecfinance.tasklist.domain.project.Project;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of the servlet {@code ProjectController}, active when the application runs on WebFlux.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/projects")
+public class ReactiveProjectController {
+
+    private final TaskListService taskListService;
+
+    public ReactiveProjectController(TaskListService taskListService) {
+        this.taskListService = taskListService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Void>> create(@RequestBody CreateProjectRequest request, UriComponentsBuilder uriBuilder) {
+        return Mono.fromSupplier(() -> taskListService.createProject(request.name()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(project -> ResponseEntity.created(uriBuilder.path("/projects/{id}").buildAndExpand(project.getId()).toUri()).<Void>build());
+    }
+
+    @GetMapping("{id:\\d+}")
+    public Mono<Project> get(@PathVariable int id) {
+        return Mono.fromSupplier(() -> taskListService.getProject(id));
+    }
+
+    @PostMapping("{name}/tasks")
+    public Mono<ResponseEntity<Void>> create(
+            @PathVariable("name") String projectName,
+            @RequestBody CreateTaskRequest request,
+            UriComponentsBuilder uriBuilder
+    ) {
+        return Mono.fromSupplier(() -> taskListService.addTaskToProject(projectName, request.taskDescription()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(task -> ResponseEntity.created(uriBuilder.path("/tasks/{id}").buildAndExpand(task.getId()).toUri()).<Void>build());
+    }
+
+    @PostMapping("tasks/batch")
+    public Mono<List<BatchResult>> createAll(@RequestBody List<BatchCreateTaskRequest> requests) {
+        List<NewTask> newTasks = requests.stream()
+                .map(request -> new NewTask(request.projectName(), request.taskDescription()))
+                .toList();
+        return Mono.fromSupplier(() -> taskListService.addTasksToProjects(newTasks))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
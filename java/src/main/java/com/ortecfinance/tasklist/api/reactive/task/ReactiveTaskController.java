@@ -0,0 +1,216 @@
+package com.ortecfinance.tasklist.api.reactive.task;
+
+import com.ortecfinance.tasklist.api.rest.task.dto.BatchUpdateTaskDeadlineRequest;
+import com.ortecfinance.tasklist.api.rest.task.dto.BatchUpdateTaskStatusRequest;
+import com.ortecfinance.tasklist.api.rest.task.dto.UpdateTaskDeadlineRequest;
+import com.ortecfinance.tasklist.api.rest.task.dto.UpdateTaskStatusRequest;
+import com.ortecfinance.tasklist.application.BatchResult;
+import com.ortecfinance.tasklist.application.ChangeEvent;
+import com.ortecfinance.tasklist.application.ChangeFeed;
+import com.ortecfinance.tasklist.application.DeadlineChange;
+import com.ortecfinance.tasklist.application.StatusChange;
+import com.ortecfinance.tasklist.application.TaskListService;
+import com.ortecfinance.tasklist.application.TaskPage;
+import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.domain.task.Task;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking counterpart of the servlet {@code TaskController}, active when the application runs on WebFlux. The
+ * stream endpoints pull tasks from the repository indexes only as fast as the client reads them. Changes run on the
+ * bounded elastic scheduler, since journaling them may wait for an fsync.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/tasks")
+public class ReactiveTaskController {
+
+    private static final long KEEP_ALIVE_SECONDS = 15;
+
+    private final TaskListService taskListService;
+    private final ChangeFeed changeFeed;
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    public ReactiveTaskController(TaskListService taskListService, ChangeFeed changeFeed) {
+        this.taskListService = taskListService;
+        this.changeFeed = changeFeed;
+    }
+
+    @GetMapping("/by-project")
+    public Mono<Map<Project, List<Task>>> getTasksByProject() {
+        return Mono.fromSupplier(taskListService::getAllTasksGroupedByProject);
+    }
+
+    @GetMapping("/by-deadline")
+    public Mono<Map<LocalDate, List<Task>>> getTasks() {
+        return Mono.fromSupplier(taskListService::getAllTasksGroupedByDueDate);
+    }
+
+    @GetMapping("/by-project/page")
+    public Mono<TaskPage<String>> getTasksByProjectPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return Mono.fromSupplier(() -> taskListService.getTasksByProjectPage(cursor, limit));
+    }
+
+    @GetMapping("/by-deadline/page")
+    public Mono<TaskPage<LocalDate>> getTasksPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return Mono.fromSupplier(() -> taskListService.getTasksByDueDatePage(cursor, limit));
+    }
+
+    /**
+     * One group is streamed at a time, and within it one task at a time as the client requests them.
+     */
+    @GetMapping(path = "/by-project/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Task> streamTasksByProject() {
+        return Flux.defer(() -> Flux.fromIterable(taskListService.getProjects()))
+                .concatMap(project -> Flux.fromStream(() -> taskListService.streamTasksOfProject(project)), 1);
+    }
+
+    @GetMapping(path = "/by-deadline/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Task> streamTasks() {
+        return Flux.defer(() -> Flux.fromIterable(taskListService.getDueDates()))
+                .concatMap(dueDate -> Flux.fromStream(() -> taskListService.streamTasksDueOn(dueDate)), 1);
+    }
+
+    /**
+     * Same feed as the servlet variant, without a thread per client: the subscription signals new events, which are
+     * then sent as far as the client requested them. Keep-alives come from a timer.
+     */
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ChangeEvent>> streamChanges(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return Flux.create(sink -> {
+            ChangeFeed.Subscription subscription = changeFeed.subscribe(lastEventId);
+            ChangeSender sender = new ChangeSender(subscription, sink);
+            Disposable keepAlive = Schedulers.parallel().schedulePeriodically(
+                    sender::keepAlive, KEEP_ALIVE_SECONDS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+            subscription.onEvent(() -> Schedulers.parallel().schedule(sender::send)); //off the writer's thread
+            sink.onRequest(requested -> sender.send());
+            sink.onDispose(() -> {
+                keepAlive.dispose();
+                subscription.close();
+            });
+        });
+    }
+
+    @GetMapping("/due")
+    public Mono<Map<LocalDate, List<Task>>> getTasksDue(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) String project,
+            @RequestParam(required = false) Boolean done
+    ) {
+        return Mono.fromSupplier(() -> taskListService.getTasksDueBetween(
+                LocalDate.parse(from, formatter), LocalDate.parse(to, formatter), project, done));
+    }
+
+    @PutMapping("/{id}/status")
+    public Mono<ResponseEntity<Void>> updateStatus(
+            @PathVariable long id,
+            @RequestBody UpdateTaskStatusRequest request
+    ) {
+        return Mono.fromRunnable(() -> taskListService.changeStatusOnTask(id, request.done()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(ResponseEntity.status(HttpStatus.NO_CONTENT).<Void>build());
+    }
+
+    @PutMapping("/{id}/deadline")
+    public Mono<ResponseEntity<Void>> updateDeadline(
+            @PathVariable long id,
+            @RequestBody UpdateTaskDeadlineRequest request
+    ) {
+        return Mono.fromRunnable(() -> taskListService.setDeadlineOnTask(id, LocalDate.parse(request.dueDate(), formatter)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(ResponseEntity.status(HttpStatus.NO_CONTENT).<Void>build());
+    }
+
+    @PutMapping("/batch/status")
+    public Mono<List<BatchResult>> updateStatuses(@RequestBody List<BatchUpdateTaskStatusRequest> requests) {
+        List<StatusChange> changes = requests.stream()
+                .map(request -> new StatusChange(request.id(), request.done()))
+                .toList();
+        return Mono.fromSupplier(() -> taskListService.changeStatusOnTasks(changes))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PutMapping("/batch/deadline")
+    public Mono<List<BatchResult>> updateDeadlines(@RequestBody List<BatchUpdateTaskDeadlineRequest> requests) {
+        List<DeadlineChange> changes = requests.stream()
+                .map(this::toDeadlineChange)
+                .toList();
+        return Mono.fromSupplier(() -> taskListService.setDeadlineOnTasks(changes))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private DeadlineChange toDeadlineChange(BatchUpdateTaskDeadlineRequest request) {
+        try {
+            return new DeadlineChange(request.id(), LocalDate.parse(request.dueDate(), formatter));
+        } catch (DateTimeParseException exception) {
+            return DeadlineChange.unreadable(request.id(), exception.getMessage());
+        }
+    }
+
+    /**
+     * Moves events from a subscription to the client as far as its demand allows. Whichever thread signals first does
+     * the sending; signals arriving meanwhile only make it check once more.
+     */
+    private final class ChangeSender {
+        private final ChangeFeed.Subscription subscription;
+        private final FluxSink<ServerSentEvent<ChangeEvent>> sink;
+        private final AtomicInteger signals = new AtomicInteger();
+        private volatile boolean keepAliveDue;
+
+        ChangeSender(ChangeFeed.Subscription subscription, FluxSink<ServerSentEvent<ChangeEvent>> sink) {
+            this.subscription = subscription;
+            this.sink = sink;
+        }
+
+        void keepAlive() {
+            keepAliveDue = true;
+            send();
+        }
+
+        void send() {
+            if (signals.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                try {
+                    ChangeEvent event;
+                    while (sink.requestedFromDownstream() > 0 && (event = subscription.poll()) != null) {
+                        sink.next(ServerSentEvent.builder(event).id(changeFeed.eventId(event.id())).event(event.type().name()).build());
+                    }
+                } catch (IllegalStateException exception) {
+                    sink.complete(); //fell behind, the client reconnects with its last event id
+                    return;
+                }
+                if (keepAliveDue && sink.requestedFromDownstream() > 0) {
+                    keepAliveDue = false;
+                    sink.next(ServerSentEvent.<ChangeEvent>builder().comment("keep-alive").build());
+                }
+            } while (signals.decrementAndGet() != 0);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.ortecfinance.tasklist.api.rest;
+
+import com.ortecfinance.tasklist.application.ViewVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Encoded response bodies by view, each valid for one version of its data. The bodies together stay within a byte
+ * budget; when a new body does not fit, the least recently used ones are evicted. A body larger than the whole budget
+ * is served but not kept.
+ * <p>
+ * Requests that miss on the same version of a view share one encoding. A body is never stored over that of a newer
+ * version, so a slow encoding of an old version cannot replace a fresh one.
+ */
+public class ResponseCache {
+    private static final int ENTRY_OVERHEAD = 64; //map node, entry and array headers, roughly
+
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Flight, CompletableFuture<byte[]>> inFlight = new HashMap<>();
+    private final Lock lock = new ReentrantLock(); //encoding happens outside it, so misses on other views do not queue up
+    private long bytes;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter evictions;
+
+    public ResponseCache(long maxBytes, MeterRegistry registry) {
+        this.maxBytes = maxBytes;
+        hits = Counter.builder("tasklist.response.cache.requests").tag("result", "hit").register(registry);
+        misses = Counter.builder("tasklist.response.cache.requests").tag("result", "miss").register(registry);
+        coalesced = Counter.builder("tasklist.response.cache.requests").tag("result", "coalesced").register(registry);
+        evictions = Counter.builder("tasklist.response.cache.evictions").register(registry);
+        Gauge.builder("tasklist.response.cache.size", this, ResponseCache::bytes).baseUnit("bytes").register(registry);
+        Gauge.builder("tasklist.response.cache.entries", this, ResponseCache::entryCount).register(registry);
+    }
+
+    @FunctionalInterface
+    public interface Encoder {
+        byte[] encode() throws IOException;
+    }
+
+    /**
+     * The body cached for {@code view} at {@code version}, or the output of {@code encoder} after storing it in place
+     * of the body of an older version. While one request encodes a version, others asking for it wait for its body.
+     */
+    public byte[] get(String view, ViewVersion version, Encoder encoder) throws IOException {
+        Flight flight = new Flight(view, version.tag());
+        CompletableFuture<byte[]> pending;
+        CompletableFuture<byte[]> own = null;
+        lock.lock();
+        try {
+            Entry entry = entries.get(view);
+            if (entry != null && entry.version().equals(version.tag())) {
+                hits.increment();
+                return entry.body();
+            }
+            pending = inFlight.get(flight);
+            if (pending == null) {
+                own = new CompletableFuture<>();
+                inFlight.put(flight, own);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (own == null) {
+            coalesced.increment();
+            return await(pending);
+        }
+        misses.increment();
+        try {
+            byte[] body = encoder.encode();
+            put(view, new Entry(version.tag(), version.sequence(), body, weigh(view, body)));
+            own.complete(body);
+            return body;
+        } catch (IOException | RuntimeException | Error exception) {
+            own.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            lock.lock();
+            try {
+                inFlight.remove(flight);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> pending) throws IOException {
+        try {
+            return pending.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof IOException cause) {
+                throw new IOException(cause.getMessage(), cause); //with the stack of this request rather than the encoding one
+            }
+            if (exception.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw (RuntimeException) exception.getCause();
+        }
+    }
+
+    long bytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int entryCount() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(String view, Entry entry) {
+        lock.lock();
+        try {
+            Entry previous = entries.get(view);
+            if (previous != null && previous.sequence() > entry.sequence()) {
+                return; //encoded for a request that read the version before someone else stored a newer body
+            }
+            if (previous != null) {
+                entries.remove(view);
+                bytes -= previous.weight();
+            }
+            if (entry.weight() > maxBytes) {
+                return;
+            }
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (bytes + entry.weight() > maxBytes) {
+                bytes -= eldest.next().weight();
+                eldest.remove();
+                evictions.increment();
+            }
+            entries.put(view, entry);
+            bytes += entry.weight();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long weigh(String view, byte[] body) {
+        return ENTRY_OVERHEAD + 2L * view.length() + body.length;
+    }
+
+    private record Entry(String version, long sequence, byte[] body, long weight) {
+    }
+
+    private record Flight(String view, String version) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.ortecfinance.tasklist.api.rest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties("tasklist.response-cache")
+public record ResponseCacheProperties(
+        @DefaultValue("32MB") DataSize maxSize
+) {
+}
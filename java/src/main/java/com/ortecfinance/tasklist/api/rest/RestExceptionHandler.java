@@ -0,0 +1,30 @@
+package com.ortecfinance.tasklist.api.rest;
+
+import com.ortecfinance.tasklist.exceptions.DuplicateRecordException;
+import com.ortecfinance.tasklist.exceptions.InvalidRequestException;
+import com.ortecfinance.tasklist.exceptions.RecordNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.format.DateTimeParseException;
+
+@RestControllerAdvice
+public class RestExceptionHandler {
+
+    @ExceptionHandler(RecordNotFoundException.class)
+    public ProblemDetail handleNotFound(RecordNotFoundException exception) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, exception.getMessage());
+    }
+
+    @ExceptionHandler({InvalidRequestException.class, DateTimeParseException.class})
+    public ProblemDetail handleBadRequest(RuntimeException exception) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, exception.getMessage());
+    }
+
+    @ExceptionHandler(DuplicateRecordException.class)
+    public ProblemDetail handleDuplicate(DuplicateRecordException exception) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, exception.getMessage());
+    }
+}
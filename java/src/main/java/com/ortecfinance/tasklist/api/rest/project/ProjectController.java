@@ -1,11 +1,15 @@
 package com.ortecfinance.tasklist.api.rest.project;
 
+import com.ortecfinance.tasklist.api.rest.project.dto.BatchCreateTaskRequest;
 import com.ortecfinance.tasklist.api.rest.project.dto.CreateProjectRequest;
 import com.ortecfinance.tasklist.api.rest.project.dto.CreateTaskRequest;
+import com.ortecfinance.tasklist.application.BatchResult;
+import com.ortecfinance.tasklist.application.NewTask;
+import com.ortecfinance.tasklist.application.ProjectProgress;
 import com.ortecfinance.tasklist.application.TaskListService;
 import com.ortecfinance.tasklist.domain.project.Project;
 import com.ortecfinance.tasklist.domain.task.Task;
-import org.springframework.http.HttpStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -15,6 +19,7 @@ import java.util.List;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/projects")
 public class ProjectController {
 
@@ -26,8 +31,30 @@ public class ProjectController {
 
     @PostMapping
     public ResponseEntity<Void> create(@RequestBody CreateProjectRequest request) {
-        taskListService.createProject(request.name());
-        return ResponseEntity.status(HttpStatus.CREATED).build(); //No URI in location header because Project has no id field
+        Project project = taskListService.createProject(request.name());
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(project.getId())
+                .toUri();
+
+        return ResponseEntity.created(location).build();
+    }
+
+    @GetMapping("{id:\\d+}")
+    public ResponseEntity<Project> get(@PathVariable int id) {
+        return ResponseEntity.ok(taskListService.getProject(id));
+    }
+
+    @GetMapping("progress")
+    public ResponseEntity<List<ProjectProgress>> getProgress() {
+        return ResponseEntity.ok(taskListService.getProgressByProject());
+    }
+
+    @GetMapping("{name}/progress")
+    public ResponseEntity<ProjectProgress> getProgress(@PathVariable("name") String projectName) {
+        return ResponseEntity.ok(taskListService.getProjectProgress(projectName));
     }
 
     @PostMapping("{name}/tasks")
@@ -46,5 +73,12 @@ public class ProjectController {
         return ResponseEntity.created(location).build();
     }
 
+    @PostMapping("tasks/batch")
+    public ResponseEntity<List<BatchResult>> createAll(@RequestBody List<BatchCreateTaskRequest> requests) {
+        List<NewTask> newTasks = requests.stream()
+                .map(request -> new NewTask(request.projectName(), request.taskDescription()))
+                .toList();
+        return ResponseEntity.ok(taskListService.addTasksToProjects(newTasks));
+    }
 
 }
@@ -0,0 +1,7 @@
+package com.ortecfinance.tasklist.api.rest.project.dto;
+
+public record BatchCreateTaskRequest(
+        String projectName,
+        String taskDescription
+) {
+}
@@ -1,45 +1,177 @@
 package com.ortecfinance.tasklist.api.rest.task;
 
+import com.ortecfinance.tasklist.api.rest.ResponseCache;
+import com.ortecfinance.tasklist.api.rest.task.dto.BatchUpdateTaskDeadlineRequest;
+import com.ortecfinance.tasklist.api.rest.task.dto.BatchUpdateTaskStatusRequest;
 import com.ortecfinance.tasklist.api.rest.task.dto.UpdateTaskDeadlineRequest;
 import com.ortecfinance.tasklist.api.rest.task.dto.UpdateTaskStatusRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ortecfinance.tasklist.application.BatchResult;
+import com.ortecfinance.tasklist.application.ChangeEvent;
+import com.ortecfinance.tasklist.application.ChangeFeed;
+import com.ortecfinance.tasklist.application.DeadlineChange;
+import com.ortecfinance.tasklist.application.StatusChange;
 import com.ortecfinance.tasklist.application.TaskListService;
-import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.application.ViewVersion;
 import com.ortecfinance.tasklist.domain.task.Task;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/tasks")
 public class TaskController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final long KEEP_ALIVE_SECONDS = 15;
+
     private final TaskListService taskListService;
+    private final ChangeFeed changeFeed;
+    private final ResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter viewWriter;
+    private final ObjectWriter lineWriter;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
-    public TaskController(TaskListService taskListService) {
+    public TaskController(TaskListService taskListService, ChangeFeed changeFeed, ResponseCache responseCache, ObjectMapper objectMapper) {
         this.taskListService = taskListService;
+        this.changeFeed = changeFeed;
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        this.viewWriter = objectMapper.writer();
+        this.lineWriter = objectMapper.writerFor(Task.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
+    /**
+     * The read endpoints below answer with 304 when the {@code If-None-Match} or {@code If-Modified-Since} header
+     * matches the current version of their data, without building the view. Otherwise the JSON comes from the
+     * {@link ResponseCache} until the version moves.
+     */
     @GetMapping("/by-project")
-    public ResponseEntity<Map<Project, List<Task>>> getTasksByProject() {
-        Map<Project, List<Task>> result = taskListService.getAllTasksGroupedByProject();
-        return ResponseEntity.ok(result);
+    public ResponseEntity<byte[]> getTasksByProject(WebRequest request) throws IOException {
+        return cachedView(request, "by-project", taskListService.getTasksByProjectVersion(),
+                taskListService::getAllTasksGroupedByProject);
     }
 
     @GetMapping("/by-deadline")
-    public ResponseEntity<Map<LocalDate, List<Task>>> getTasks() {
-        Map<LocalDate, List<Task>> result = taskListService.getAllTasksGroupedByDueDate();
-        return ResponseEntity.ok(result);
+    public ResponseEntity<byte[]> getTasks(WebRequest request) throws IOException {
+        return cachedView(request, "by-deadline", taskListService.getTasksByDueDateVersion(),
+                taskListService::getAllTasksGroupedByDueDate);
+    }
+
+    @GetMapping("/by-project/page")
+    public ResponseEntity<byte[]> getTasksByProjectPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest request
+    ) throws IOException {
+        return cachedView(request, "by-project/page?cursor=" + cursor + "&limit=" + limit,
+                taskListService.getTasksByProjectVersion(),
+                () -> taskListService.getTasksByProjectPage(cursor, limit));
+    }
+
+    @GetMapping("/by-deadline/page")
+    public ResponseEntity<byte[]> getTasksPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest request
+    ) throws IOException {
+        return cachedView(request, "by-deadline/page?cursor=" + cursor + "&limit=" + limit,
+                taskListService.getTasksByDueDateVersion(),
+                () -> taskListService.getTasksByDueDatePage(cursor, limit));
+    }
+
+    /**
+     * Done or open tasks by id, optionally of one project. The next page starts after the id of the last task.
+     */
+    @GetMapping("/by-status")
+    public ResponseEntity<List<Task>> getTasksByStatus(
+            @RequestParam boolean done,
+            @RequestParam(required = false) String project,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(taskListService.getTasksByStatus(done, project, after, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<Task>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(taskListService.searchTasks(q, limit));
+    }
+
+    @GetMapping("/by-project/stream")
+    public ResponseEntity<StreamingResponseBody> streamTasksByProject() {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(outputStream -> writeLines(taskListService.streamTasksByProject(), outputStream));
+    }
+
+    @GetMapping("/by-deadline/stream")
+    public ResponseEntity<StreamingResponseBody> streamTasks() {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(outputStream -> writeLines(taskListService.streamTasksByDueDate(), outputStream));
+    }
+
+    /**
+     * Server-sent events for every change, named after the {@link ChangeEvent.Type}. Reconnecting clients resume after
+     * the id in their {@code Last-Event-ID} header. A client that falls too far behind is disconnected and can resume
+     * the same way.
+     */
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = new SseEmitter(0L); //no timeout, the keep-alive comments detect clients that went away
+        ChangeFeed.Subscription subscription = changeFeed.subscribe(lastEventId);
+        Thread sender = Thread.ofVirtual().name("change-feed").start(() -> sendChanges(subscription, emitter));
+        emitter.onCompletion(() -> {
+            subscription.close();
+            sender.interrupt();
+        });
+        return emitter;
+    }
+
+    @GetMapping("/due")
+    public ResponseEntity<byte[]> getTasksDue(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) String project,
+            @RequestParam(required = false) Boolean done,
+            WebRequest request
+    ) throws IOException {
+        LocalDate fromDate = LocalDate.parse(from, formatter);
+        LocalDate toDate = LocalDate.parse(to, formatter);
+        //the project filter makes the result depend on the projects too
+        return cachedView(request, "due?from=" + fromDate + "&to=" + toDate + "&project=" + project + "&done=" + done,
+                taskListService.getTasksByProjectVersion(),
+                () -> taskListService.getTasksDueBetween(fromDate, toDate, project, done));
     }
 
     @PutMapping("/{id}/status")
     public ResponseEntity<Void> updateStatus(
-            @PathVariable int id,
+            @PathVariable long id,
             @RequestBody UpdateTaskStatusRequest request
     ) {
         taskListService.changeStatusOnTask(id, request.done());
@@ -48,10 +180,75 @@ public class TaskController {
 
     @PutMapping("/{id}/deadline")
     public ResponseEntity<Void> updateDeadline(
-            @PathVariable int id,
+            @PathVariable long id,
             @RequestBody UpdateTaskDeadlineRequest request
             ) {
         taskListService.setDeadlineOnTask(id, LocalDate.parse(request.dueDate(), formatter));
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
+
+    @PutMapping("/batch/status")
+    public ResponseEntity<List<BatchResult>> updateStatuses(@RequestBody List<BatchUpdateTaskStatusRequest> requests) {
+        List<StatusChange> changes = requests.stream()
+                .map(request -> new StatusChange(request.id(), request.done()))
+                .toList();
+        return ResponseEntity.ok(taskListService.changeStatusOnTasks(changes));
+    }
+
+    @PutMapping("/batch/deadline")
+    public ResponseEntity<List<BatchResult>> updateDeadlines(@RequestBody List<BatchUpdateTaskDeadlineRequest> requests) {
+        List<DeadlineChange> changes = requests.stream()
+                .map(this::toDeadlineChange)
+                .toList();
+        return ResponseEntity.ok(taskListService.setDeadlineOnTasks(changes));
+    }
+
+    private DeadlineChange toDeadlineChange(BatchUpdateTaskDeadlineRequest request) {
+        try {
+            return new DeadlineChange(request.id(), LocalDate.parse(request.dueDate(), formatter));
+        } catch (DateTimeParseException exception) {
+            return DeadlineChange.unreadable(request.id(), exception.getMessage());
+        }
+    }
+
+    private ResponseEntity<byte[]> cachedView(WebRequest request, String view, ViewVersion version, Supplier<?> content) throws IOException {
+        if (request.checkNotModified(version.tag(), version.lastModified())) {
+            return null; //the 304 status and validators are already set on the response
+        }
+        byte[] body = responseCache.get(view, version, () -> viewWriter.writeValueAsBytes(content.get()));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private void sendChanges(ChangeFeed.Subscription subscription, SseEmitter emitter) {
+        try (subscription) {
+            while (true) {
+                ChangeEvent event = subscription.poll(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+                if (event == null) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(changeFeed.eventId(event.id()))
+                            .name(event.type().name())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IllegalStateException exception) {
+            emitter.complete(); //fell behind, the client reconnects with its last event id
+        } catch (IOException exception) {
+            emitter.completeWithError(exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLines(Stream<Task> tasks, OutputStream outputStream) throws IOException {
+        try (tasks; JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                lineWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
 }
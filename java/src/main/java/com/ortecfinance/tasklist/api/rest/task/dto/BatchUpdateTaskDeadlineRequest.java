@@ -0,0 +1,7 @@
+package com.ortecfinance.tasklist.api.rest.task.dto;
+
+public record BatchUpdateTaskDeadlineRequest(
+        long id,
+        String dueDate
+) {
+}
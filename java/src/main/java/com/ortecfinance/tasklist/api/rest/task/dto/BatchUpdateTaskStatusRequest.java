@@ -0,0 +1,7 @@
+package com.ortecfinance.tasklist.api.rest.task.dto;
+
+public record BatchUpdateTaskStatusRequest(
+        long id,
+        boolean done
+) {
+}
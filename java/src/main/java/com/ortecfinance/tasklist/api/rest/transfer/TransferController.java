@@ -0,0 +1,50 @@
+package com.ortecfinance.tasklist.api.rest.transfer;
+
+import com.ortecfinance.tasklist.exceptions.InvalidRequestException;
+import com.ortecfinance.tasklist.transfer.ImportSummary;
+import com.ortecfinance.tasklist.transfer.TaskListTransfer;
+import com.ortecfinance.tasklist.transfer.TransferFormat;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TransferController {
+
+    private final TaskListTransfer taskListTransfer;
+
+    public TransferController(TaskListTransfer taskListTransfer) {
+        this.taskListTransfer = taskListTransfer;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        TransferFormat transferFormat = parseFormat(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(transferFormat.mediaType()))
+                .body(outputStream -> taskListTransfer.exportTo(Channels.newChannel(outputStream), transferFormat));
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<ImportSummary> importTasks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            InputStream body
+    ) throws IOException {
+        return ResponseEntity.ok(taskListTransfer.importFrom(Channels.newChannel(body), parseFormat(format)));
+    }
+
+    private static TransferFormat parseFormat(String format) {
+        try {
+            return TransferFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidRequestException("Unknown format \"" + format + "\", use csv or ndjson.");
+        }
+    }
+}
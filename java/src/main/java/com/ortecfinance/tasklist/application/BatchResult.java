@@ -0,0 +1,17 @@
+package com.ortecfinance.tasklist.application;
+
+/**
+ * Outcome of one item of a batch: the id of the task it created or changed, or why it failed.
+ */
+public record BatchResult(
+        Long taskId,
+        String error
+) {
+    static BatchResult succeeded(long taskId) {
+        return new BatchResult(taskId, null);
+    }
+
+    static BatchResult failed(String error) {
+        return new BatchResult(null, error);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ortecfinance.tasklist.application;
+
+import com.ortecfinance.tasklist.domain.task.Task;
+
+/**
+ * A change made through {@link TaskListService}, numbered in the order changes were published. {@code task} is a copy
+ * taken when the change was made and is {@code null} for {@link Type#PROJECT_CREATED} and {@link Type#RESET}.
+ */
+public record ChangeEvent(
+        long id,
+        Type type,
+        String project,
+        Task task
+) {
+    public enum Type {
+        PROJECT_CREATED,
+        TASK_CREATED,
+        TASK_CHECKED,
+        TASK_UNCHECKED,
+        DEADLINE_CHANGED,
+        /**
+         * The events after the requested one are no longer retained, or changes were made without events of their own;
+         * the subscriber has to reload everything.
+         */
+        RESET
+    }
+}
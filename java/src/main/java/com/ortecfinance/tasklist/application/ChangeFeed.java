@@ -0,0 +1,184 @@
+package com.ortecfinance.tasklist.application;
+
+import com.ortecfinance.tasklist.domain.task.Task;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fan-out of {@link ChangeEvent}s to subscribers. The last {@value #HISTORY_SIZE} events are retained, so a subscriber
+ * can resume after the last event it saw. Every subscriber has a bounded queue; publishing never waits for it, and a
+ * subscriber whose queue is full is closed instead, so a slow client can only lose its own subscription.
+ */
+@Component
+public class ChangeFeed {
+    static final int HISTORY_SIZE = 4096;
+    static final int SUBSCRIBER_QUEUE_SIZE = 1024;
+
+    private final ChangeEvent[] history = new ChangeEvent[HISTORY_SIZE];
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final String epoch = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36); //ids restart at 1 with the process
+    private long lastId;
+
+    void projectCreated(String project) {
+        publish(ChangeEvent.Type.PROJECT_CREATED, project, null);
+    }
+
+    void taskCreated(String project, Task task) {
+        publish(ChangeEvent.Type.TASK_CREATED, project, copyOf(task));
+    }
+
+    void statusChanged(String project, Task task) {
+        Task copy = copyOf(task);
+        publish(copy.isDone() ? ChangeEvent.Type.TASK_CHECKED : ChangeEvent.Type.TASK_UNCHECKED, project, copy);
+    }
+
+    void deadlineChanged(String project, Task task) {
+        publish(ChangeEvent.Type.DEADLINE_CHANGED, project, copyOf(task));
+    }
+
+    /**
+     * Tells subscribers to reload everything, for changes made without events of their own, such as an import.
+     */
+    public void reset() {
+        publish(ChangeEvent.Type.RESET, null, null);
+    }
+
+    /**
+     * The id clients see for the event numbered {@code id}, prefixed with the epoch of this process.
+     */
+    public String eventId(long id) {
+        return epoch + "-" + id;
+    }
+
+    /**
+     * Subscribes to the events after {@code lastEventId}, or to new events only when it is {@code null}. If events
+     * after {@code lastEventId} were already dropped from the history, are more than the subscriber queue holds, or
+     * it was handed out before the process restarted, the first event is a {@link ChangeEvent.Type#RESET}.
+     */
+    public Subscription subscribe(String lastEventId) {
+        long after = lastEventId == null ? 0 : numberOf(lastEventId);
+        Subscription subscription = new Subscription();
+        lock.lock();
+        try {
+            if (lastEventId != null && after < lastId) {
+                long oldestRetained = Math.max(1, lastId - HISTORY_SIZE + 1);
+                long from = after + 1;
+                if (from < oldestRetained || lastId - from >= SUBSCRIBER_QUEUE_SIZE) { //replaying would overflow the queue
+                    subscription.queue.add(new ChangeEvent(lastId, ChangeEvent.Type.RESET, null, null));
+                    from = lastId + 1;
+                }
+                for (long id = from; id <= lastId; id++) {
+                    subscription.queue.add(history[slot(id)]);
+                }
+            }
+            subscriptions.add(subscription);
+        } finally {
+            lock.unlock();
+        }
+        return subscription;
+    }
+
+    int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    private void publish(ChangeEvent.Type type, String project, Task copy) {
+        lock.lock();
+        try {
+            ChangeEvent event = new ChangeEvent(++lastId, type, project, copy);
+            history[slot(event.id())] = event;
+            for (Subscription subscription : subscriptions) {
+                if (!subscription.queue.offer(event)) {
+                    subscription.close();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.listener.run();
+        }
+    }
+
+    /**
+     * The number in an id from {@link #eventId}, or -1 for ids of another process, which come before all retained events.
+     */
+    private long numberOf(String eventId) {
+        String prefix = epoch + "-";
+        if (eventId.startsWith(prefix)) {
+            try {
+                return Long.parseLong(eventId, prefix.length(), eventId.length(), 10);
+            } catch (NumberFormatException exception) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static Task copyOf(Task task) {
+        return new Task(task.getId(), task.getProjectId(), task.getDescription(), task.isDone(), task.getDueDate());
+    }
+
+    private static int slot(long id) {
+        return (int) (id % HISTORY_SIZE);
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final BlockingQueue<ChangeEvent> queue = new ArrayBlockingQueue<>(SUBSCRIBER_QUEUE_SIZE);
+        private volatile boolean closed;
+        private volatile Runnable listener = () -> {};
+
+        /**
+         * The next event, or {@code null} if none arrived within the timeout. Throws once the subscription is closed,
+         * after the events queued before that were taken.
+         */
+        public ChangeEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+            ChangeEvent event = queue.poll();
+            if (event == null) {
+                if (closed) {
+                    throw new IllegalStateException("The subscription was closed because its client fell too far behind.");
+                }
+                event = queue.poll(timeout, unit);
+            }
+            return event;
+        }
+
+        /**
+         * The next event, or {@code null} if there is none yet, without waiting. Throws like the method above.
+         */
+        public ChangeEvent poll() {
+            ChangeEvent event = queue.poll();
+            if (event == null && closed) {
+                throw new IllegalStateException("The subscription was closed because its client fell too far behind.");
+            }
+            return event;
+        }
+
+        /**
+         * Runs {@code listener} on the publishing thread after every event and once the subscription is closed, for
+         * callers that take events with {@link #poll()} instead of waiting for them. It must not block.
+         */
+        public void onEvent(Runnable listener) {
+            this.listener = listener;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+            listener.run();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.ortecfinance.tasklist.application;
+
+import java.time.LocalDate;
+
+/**
+ * A due date to set on a task. A change whose date could not be read carries the reason instead, so it fails on its
+ * own rather than failing the whole batch.
+ */
+public record DeadlineChange(
+        long taskId,
+        LocalDate dueDate,
+        String error
+) {
+    public DeadlineChange(long taskId, LocalDate dueDate) {
+        this(taskId, dueDate, null);
+    }
+
+    public static DeadlineChange unreadable(long taskId, String error) {
+        return new DeadlineChange(taskId, null, error);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ortecfinance.tasklist.application;
+
+public record NewTask(
+        String projectName,
+        String description
+) {
+}
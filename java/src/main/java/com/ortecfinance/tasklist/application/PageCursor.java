@@ -0,0 +1,33 @@
+package com.ortecfinance.tasklist.application;
+
+import com.ortecfinance.tasklist.exceptions.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in an ordered task listing: the group (project name or due date) and the id of the last task returned.
+ * Clients only see the encoded form.
+ */
+record PageCursor(String group, long taskId) {
+    private static final char SEPARATOR = '\n';
+
+    static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            return new PageCursor(decoded.substring(0, separator), Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException exception) {
+            throw new InvalidRequestException("Invalid cursor \"" + cursor + "\".");
+        }
+    }
+
+    String encode() {
+        String raw = group + SEPARATOR + taskId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,19 @@
+package com.ortecfinance.tasklist.application;
+
+import com.ortecfinance.tasklist.domain.task.TaskCounts;
+
+/**
+ * Task counts of one project; {@code progress} is the done fraction, 0 for a project without tasks.
+ */
+public record ProjectProgress(
+        String project,
+        int total,
+        int done,
+        int open,
+        double progress
+) {
+    static ProjectProgress of(String project, TaskCounts counts) {
+        return new ProjectProgress(project, counts.total(), counts.done(), counts.open(),
+                counts.total() == 0 ? 0 : (double) counts.done() / counts.total());
+    }
+}
@@ -4,79 +4,430 @@ import com.ortecfinance.tasklist.domain.project.Project;
 import com.ortecfinance.tasklist.domain.project.ProjectRepository;
 import com.ortecfinance.tasklist.domain.task.Task;
 import com.ortecfinance.tasklist.domain.task.TaskRepository;
+import com.ortecfinance.tasklist.exceptions.InvalidRequestException;
 import com.ortecfinance.tasklist.exceptions.RecordNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.security.SecureRandom;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TaskListService {
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 10_000;
 
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
+    private final ChangeFeed changeFeed;
+    private final String epoch = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36); //versions restart at 0 with the process
+    private volatile ProjectView projectView = new ProjectView(-1, -1, Map.of());
+    private volatile DueDateView dueDateView = new DueDateView(-1, Collections.emptyNavigableMap());
+    private final Timer groupedByProjectTimer;
+    private final Timer groupedByDueDateTimer;
+    private final Timer dueBetweenTimer;
+    private final Timer projectPageTimer;
+    private final Timer dueDatePageTimer;
+    private final Timer searchTimer;
+    private final Timer byStatusTimer;
+    private final Timer progressTimer;
+    private final Timer createProjectTimer;
+    private final Timer addTaskTimer;
+    private final Timer changeStatusTimer;
+    private final Timer setDeadlineTimer;
+    private final Timer addTasksTimer;
+    private final Timer changeStatusesTimer;
+    private final Timer setDeadlinesTimer;
 
     public TaskListService(TaskRepository taskRepository, ProjectRepository projectRepository) {
+        this(taskRepository, projectRepository, Metrics.globalRegistry, new ChangeFeed());
+    }
+
+    /**
+     * Every operation is timed under {@code tasklist.service}. The stream methods are not, as their work happens while
+     * the caller consumes the stream.
+     */
+    @Autowired
+    public TaskListService(TaskRepository taskRepository, ProjectRepository projectRepository, MeterRegistry registry, ChangeFeed changeFeed) {
         this.taskRepository = taskRepository;
         this.projectRepository = projectRepository;
+        this.changeFeed = changeFeed;
+        groupedByProjectTimer = timer(registry, "getAllTasksGroupedByProject");
+        groupedByDueDateTimer = timer(registry, "getAllTasksGroupedByDueDate");
+        dueBetweenTimer = timer(registry, "getTasksDueBetween");
+        projectPageTimer = timer(registry, "getTasksByProjectPage");
+        dueDatePageTimer = timer(registry, "getTasksByDueDatePage");
+        searchTimer = timer(registry, "searchTasks");
+        byStatusTimer = timer(registry, "getTasksByStatus");
+        progressTimer = timer(registry, "getProgress");
+        createProjectTimer = timer(registry, "createProject");
+        addTaskTimer = timer(registry, "addTaskToProject");
+        changeStatusTimer = timer(registry, "changeStatusOnTask");
+        setDeadlineTimer = timer(registry, "setDeadlineOnTask");
+        addTasksTimer = timer(registry, "addTasksToProjects");
+        changeStatusesTimer = timer(registry, "changeStatusOnTasks");
+        setDeadlinesTimer = timer(registry, "setDeadlineOnTasks");
     }
 
     public Map<Project, List<Task>> getAllTasksGroupedByProject() {
-        Map<Project, List<Task>> map = projectRepository.findAll().stream()
-                .collect(Collectors.toMap(
-                        project -> project,
-                        project -> new ArrayList<>(),
-                        (a, b) -> a, LinkedHashMap::new //required to preserve order
-                ));
+        return groupedByProjectTimer.record(() -> {
+            ProjectView view = projectView;
+            long projectVersion = projectRepository.version();
+            long taskVersion = taskRepository.version();
+            if (view.projectVersion() == projectVersion && view.taskVersion() == taskVersion) {
+                return view.tasksByProject();
+            }
+
+            Map<Project, List<Task>> map = projectRepository.findAll().stream()
+                    .collect(Collectors.toMap(
+                            project -> project,
+                            taskRepository::findAllByProject,
+                            (a, b) -> a, LinkedHashMap::new //required to preserve order
+                    ));
+
+            view = new ProjectView(projectVersion, taskVersion, Collections.unmodifiableMap(map));
+            projectView = view;
+            return view.tasksByProject();
+        });
+    }
 
-        taskRepository.findAll()
-                .forEach(task -> map.get(task.getProject()).add(task));
+    /**
+     * The version of {@link #getAllTasksGroupedByProject()}. Reading it is cheap and does not build the view, so it
+     * is not timed.
+     */
+    public ViewVersion getTasksByProjectVersion() {
+        long projectVersion = projectRepository.version();
+        long taskVersion = taskRepository.version();
+        return new ViewVersion(epoch + "-p" + projectVersion + "-t" + taskVersion,
+                Math.max(projectRepository.lastModified(), taskRepository.lastModified()), projectVersion + taskVersion);
+    }
 
-        return map;
+    public ViewVersion getTasksByDueDateVersion() {
+        long taskVersion = taskRepository.version();
+        return new ViewVersion(epoch + "-t" + taskVersion, taskRepository.lastModified(), taskVersion);
     }
 
     public Map<LocalDate, List<Task>> getAllTasksGroupedByDueDate() {
-        Map<LocalDate, List<Task>> tasksByDueDate = new TreeMap<>();
-
-        List<Task> tasks = taskRepository.findAll();
-        for (Task task : tasks) {
-            if (task.getDueDate() != null) {
-                tasksByDueDate.computeIfAbsent(task.getDueDate(), key -> new ArrayList<>())
-                        .add(task);
-            } else {
-                tasksByDueDate.computeIfAbsent(LocalDate.MAX, key -> new ArrayList<>())
-                        .add(task);
+        return groupedByDueDateTimer.record(() -> {
+            DueDateView view = dueDateView;
+            long taskVersion = taskRepository.version();
+            if (view.taskVersion() == taskVersion) {
+                return view.tasksByDueDate();
             }
-        }
 
-        return tasksByDueDate;
+            view = new DueDateView(taskVersion, Collections.unmodifiableNavigableMap(taskRepository.findAllGroupedByDueDate()));
+            dueDateView = view;
+            return view.tasksByDueDate();
+        });
+    }
+
+    /**
+     * Tasks with a deadline between {@code from} and {@code to} (inclusive). A {@code null} project name or done flag
+     * means that filter is not applied.
+     */
+    public Map<LocalDate, List<Task>> getTasksDueBetween(LocalDate from, LocalDate to, String projectName, Boolean done) {
+        return dueBetweenTimer.record(() -> {
+            if (from.isAfter(to)) {
+                throw new InvalidRequestException("The start date must not be after the end date.");
+            }
+
+            Predicate<Task> filter = task -> done == null || task.isDone() == done;
+            if (projectName != null) {
+                Project project = findProject(projectName);
+                filter = filter.and(task -> task.getProjectId() == project.getId());
+            }
+
+            return taskRepository.findAllDueBetween(from, to, filter);
+        });
+    }
+
+    public TaskPage<String> getTasksByProjectPage(String cursor, int limit) {
+        return projectPageTimer.record(() -> {
+            checkPageSize(limit);
+            List<Task> tasks = streamTasksByProject(PageCursor.decode(cursor))
+                    .limit(limit)
+                    .toList();
+
+            return toPage(tasks, limit, this::projectName);
+        });
+    }
+
+    public TaskPage<LocalDate> getTasksByDueDatePage(String cursor, int limit) {
+        return dueDatePageTimer.record(() -> {
+            checkPageSize(limit);
+            PageCursor start = PageCursor.decode(cursor);
+            Stream<Task> stream = start == null
+                    ? streamTasksByDueDate()
+                    : taskRepository.streamAllByDueDate(parseDate(start.group()), start.taskId());
+            List<Task> tasks = stream
+                    .limit(limit)
+                    .toList();
+
+            return toPage(tasks, limit, task -> task.getDueDate() == null ? TaskRepository.NO_DEADLINE : task.getDueDate());
+        });
+    }
+
+    /**
+     * Up to {@code limit} tasks matching every word of {@code query}, where the last letters of a word may be left
+     * out. Best matches come first: rarer words and whole-word matches count for more.
+     */
+    public List<Task> searchTasks(String query, int limit) {
+        return searchTimer.record(() -> {
+            checkPageSize(limit);
+            return taskRepository.search(query, limit);
+        });
+    }
+
+    /**
+     * Up to {@code limit} done or open tasks by id, starting after {@code afterId}. A {@code null} project name means
+     * all projects.
+     */
+    public List<Task> getTasksByStatus(boolean done, String projectName, long afterId, int limit) {
+        return byStatusTimer.record(() -> {
+            checkPageSize(limit);
+            Project project = projectName == null ? null : findProject(projectName);
+            return taskRepository.findAllByStatus(project, done, afterId, limit);
+        });
+    }
+
+    public List<ProjectProgress> getProgressByProject() {
+        return progressTimer.record(() -> taskRepository.countAllByProject(projectRepository.findAll()).entrySet().stream()
+                .map(entry -> ProjectProgress.of(entry.getKey().getName(), entry.getValue()))
+                .toList());
+    }
+
+    public ProjectProgress getProjectProgress(String projectName) {
+        return progressTimer.record(() -> ProjectProgress.of(projectName, taskRepository.countByProject(findProject(projectName))));
+    }
+
+    public Stream<Task> streamTasksByProject() {
+        return streamTasksByProject(null);
+    }
+
+    public Stream<Task> streamTasksByDueDate() {
+        return taskRepository.streamAllByDueDate(LocalDate.MIN, Long.MIN_VALUE);
+    }
+
+    /**
+     * The groups behind the two streams above, for callers that stream one group at a time.
+     */
+    public List<Project> getProjects() {
+        return projectRepository.findAll();
+    }
+
+    public Stream<Task> streamTasksOfProject(Project project) {
+        return taskRepository.streamAllByProject(project, Long.MIN_VALUE);
+    }
+
+    public Set<LocalDate> getDueDates() {
+        return taskRepository.findAllDueDates();
+    }
+
+    public Stream<Task> streamTasksDueOn(LocalDate dueDate) {
+        return taskRepository.streamAllDueOn(dueDate);
+    }
+
+    /**
+     * Lookups for callers that validate a group of changes before applying any of them. Not timed, like the versions.
+     */
+    public boolean projectExists(String projectName) {
+        return projectRepository.findByName(projectName).isPresent();
+    }
+
+    public boolean taskExists(long taskId) {
+        return taskRepository.findById(taskId).isPresent();
+    }
+
+    public Project getProject(int projectId) {
+        return projectRepository.findById(projectId)
+                .orElseThrow(() -> new RecordNotFoundException("Could not find a project with an ID of " + projectId + "."));
     }
 
-    public void createProject(String name) {
-        Project project = new Project(name);
-        projectRepository.save(project);
+    public Project createProject(String name) {
+        return createProjectTimer.record(() -> {
+            Project project = projectRepository.create(name);
+            changeFeed.projectCreated(name);
+            return project;
+        });
     }
 
     public Task addTaskToProject(String projectName, String taskDescription) {
-        Project project = projectRepository.findByName(projectName)
-                .orElseThrow(() -> new RecordNotFoundException("Could not find a project with the name \"" + projectName + "\"."));
+        return addTaskTimer.record(() -> {
+            Project project = findProject(projectName);
 
-        Task task = new Task(project, taskDescription);
-        return taskRepository.save(task);
+            return taskRepository.save(new Task(taskRepository.nextId(), project.getId(), taskDescription),
+                    saved -> changeFeed.taskCreated(project.getName(), saved));
+        });
     }
 
-    public void changeStatusOnTask(int taskId, boolean done) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RecordNotFoundException("Could not find a task with an ID of " + taskId + "."));
+    public void changeStatusOnTask(long taskId, boolean done) {
+        changeStatusTimer.record(() -> {
+            Task task = taskRepository.findById(taskId)
+                    .orElseThrow(() -> new RecordNotFoundException(taskNotFound(taskId)));
 
-        task.setDone(done);
+            taskRepository.changeStatus(task, done, changed -> changeFeed.statusChanged(projectName(changed), changed));
+        });
     }
 
-    public void setDeadlineOnTask(int taskId, LocalDate dueDate) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RecordNotFoundException("Could not find a task with an ID of " + taskId + "."));
+    public void setDeadlineOnTask(long taskId, LocalDate dueDate) {
+        setDeadlineTimer.record(() -> {
+            String problem = dueDateProblem(dueDate);
+            if (problem != null) {
+                throw new InvalidRequestException(problem);
+            }
+            Task task = taskRepository.findById(taskId)
+                    .orElseThrow(() -> new RecordNotFoundException(taskNotFound(taskId)));
+
+            taskRepository.changeDueDate(task, dueDate, changed -> changeFeed.deadlineChanged(projectName(changed), changed));
+        });
+    }
+
+    /**
+     * Creates the tasks in order, looking up each distinct project once. A task whose project does not exist is
+     * reported as failed and does not stop the others.
+     */
+    public List<BatchResult> addTasksToProjects(List<NewTask> newTasks) {
+        return addTasksTimer.record(() -> {
+            checkBatchSize(newTasks);
+            Map<String, Optional<Project>> projects = new HashMap<>();
+            List<Task> tasks = new ArrayList<>(newTasks.size());
+            List<BatchResult> results = new ArrayList<>(newTasks.size());
+
+            for (NewTask newTask : newTasks) {
+                Optional<Project> project = projects.computeIfAbsent(newTask.projectName(), projectRepository::findByName);
+                if (project.isEmpty()) {
+                    results.add(BatchResult.failed(projectNotFound(newTask.projectName())));
+                    continue;
+                }
+                tasks.add(new Task(taskRepository.nextId(), project.get().getId(), newTask.description()));
+                results.add(null);
+            }
+
+            List<Task> saved = taskRepository.saveAll(tasks, task -> changeFeed.taskCreated(projectName(task), task));
+            Iterator<Task> savedTasks = saved.iterator();
+            results.replaceAll(result -> result == null ? BatchResult.succeeded(savedTasks.next().getId()) : result);
+            return results;
+        });
+    }
+
+    public List<BatchResult> changeStatusOnTasks(List<StatusChange> changes) {
+        return changeStatusesTimer.record(() -> {
+            checkBatchSize(changes);
+            return changes.stream()
+                    .map(change -> applyToTask(change.taskId(), task -> taskRepository.changeStatus(task, change.done(),
+                            changed -> changeFeed.statusChanged(projectName(changed), changed))))
+                    .toList();
+        });
+    }
+
+    public List<BatchResult> setDeadlineOnTasks(List<DeadlineChange> changes) {
+        return setDeadlinesTimer.record(() -> {
+            checkBatchSize(changes);
+            return changes.stream()
+                    .map(change -> {
+                        String problem = change.error() != null ? change.error() : dueDateProblem(change.dueDate());
+                        return problem != null ? BatchResult.failed(problem) : applyToTask(change.taskId(), task -> taskRepository.changeDueDate(task, change.dueDate(),
+                                changed -> changeFeed.deadlineChanged(projectName(changed), changed)));
+                    })
+                    .toList();
+        });
+    }
+
+    private BatchResult applyToTask(long taskId, Consumer<Task> change) {
+        Optional<Task> task = taskRepository.findById(taskId);
+        if (task.isEmpty()) {
+            return BatchResult.failed(taskNotFound(taskId));
+        }
+        change.accept(task.get());
+        return BatchResult.succeeded(taskId);
+    }
+
+    private static Timer timer(MeterRegistry registry, String operation) {
+        return Timer.builder("tasklist.service").tag("operation", operation).register(registry);
+    }
+
+    private Project findProject(String projectName) {
+        return projectRepository.findByName(projectName)
+                .orElseThrow(() -> new RecordNotFoundException(projectNotFound(projectName)));
+    }
+
+    private String projectName(Task task) {
+        return projectRepository.findById(task.getProjectId()).map(Project::getName).orElse(null);
+    }
+
+    private static String projectNotFound(String projectName) {
+        return "Could not find a project with the name \"" + projectName + "\".";
+    }
 
-        task.setDueDate(dueDate);
+    private static String taskNotFound(long taskId) {
+        return "Could not find a task with an ID of " + taskId + ".";
     }
+
+    private Stream<Task> streamTasksByProject(PageCursor start) {
+        List<Project> projects = projectRepository.findAll();
+        if (start == null) {
+            return taskRepository.streamAllByProjects(projects, Long.MIN_VALUE);
+        }
+
+        //projects are listed in id order, so the cursor's project is at its id minus one
+        return projectRepository.findByName(start.group())
+                .map(project -> taskRepository.streamAllByProjects(projects.subList(Math.min(project.getId() - 1, projects.size()), projects.size()), start.taskId()))
+                .orElseGet(Stream::empty);
+    }
+
+    private static <K> TaskPage<K> toPage(List<Task> tasks, int limit, Function<Task, K> groupKey) {
+        Map<K, List<Task>> grouped = tasks.stream()
+                .collect(Collectors.groupingBy(groupKey, LinkedHashMap::new, Collectors.toList()));
+
+        String nextCursor = null;
+        if (tasks.size() == limit) {
+            Task last = tasks.get(tasks.size() - 1);
+            nextCursor = new PageCursor(groupKey.apply(last).toString(), last.getId()).encode();
+        }
+        return new TaskPage<>(grouped, nextCursor);
+    }
+
+    private static void checkBatchSize(List<?> items) {
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("A batch must not contain more than " + MAX_BATCH_SIZE + " items.");
+        }
+    }
+
+    private static void checkPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("The page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    /**
+     * Why the due date cannot be stored, checked before it is journaled, or {@code null} if it can.
+     */
+    private static String dueDateProblem(LocalDate dueDate) {
+        if (dueDate != null && (dueDate.isBefore(TaskRepository.MIN_DUE_DATE) || dueDate.isAfter(TaskRepository.MAX_DUE_DATE))) {
+            return "The due date must be between " + TaskRepository.MIN_DUE_DATE + " and " + TaskRepository.MAX_DUE_DATE + ".";
+        }
+        return null;
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException exception) {
+            throw new InvalidRequestException("Invalid cursor.");
+        }
+    }
+
+    private record ProjectView(long projectVersion, long taskVersion, Map<Project, List<Task>> tasksByProject) {}
+
+    private record DueDateView(long taskVersion, NavigableMap<LocalDate, List<Task>> tasksByDueDate) {}
 }
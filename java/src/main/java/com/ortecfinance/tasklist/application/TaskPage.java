@@ -0,0 +1,12 @@
+package com.ortecfinance.tasklist.application;
+
+import com.ortecfinance.tasklist.domain.task.Task;
+
+import java.util.List;
+import java.util.Map;
+
+public record TaskPage<K>(
+        Map<K, List<Task>> tasks,
+        String nextCursor
+) {
+}
@@ -0,0 +1,13 @@
+package com.ortecfinance.tasklist.application;
+
+/**
+ * Identifies the state of a view: the tag changes whenever the view may have changed, the last modified time is in
+ * epoch milliseconds. The sequence grows with every change, so of two versions of a view from the same process the
+ * one with the higher sequence is the newer.
+ */
+public record ViewVersion(
+        String tag,
+        long lastModified,
+        long sequence
+) {
+}
@@ -0,0 +1,46 @@
+package com.ortecfinance.tasklist.domain;
+
+import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.domain.task.Task;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Receives every change to the repositories before it becomes visible, so it can be made durable.
+ * Changes to a single task are reported in the order they are applied. The returned entry is closed once the change
+ * has been applied in memory.
+ */
+public interface ChangeJournal {
+    ChangeJournal NONE = new ChangeJournal() {};
+
+    Entry APPLIED = () -> {};
+
+    default Entry projectCreated(Project project) {
+        return APPLIED;
+    }
+
+    default Entry taskCreated(Task task) {
+        return APPLIED;
+    }
+
+    /**
+     * Journals the creation of all {@code tasks} at once, so a batch waits for durability only once.
+     */
+    default Entry tasksCreated(Collection<Task> tasks) {
+        return APPLIED;
+    }
+
+    default Entry taskStatusChanged(Task task, boolean done) {
+        return APPLIED;
+    }
+
+    default Entry taskDueDateChanged(Task task, LocalDate dueDate) {
+        return APPLIED;
+    }
+
+    interface Entry extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
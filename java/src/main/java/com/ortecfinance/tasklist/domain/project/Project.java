@@ -1,13 +1,35 @@
 package com.ortecfinance.tasklist.domain.project;
 
-public class Project {
-    String name;
+/**
+ * A project, identified by the id {@link ProjectRepository} allocated for it. Ids start at 1 and follow creation order,
+ * so they can index arrays directly.
+ */
+public final class Project {
+    public static final int NO_ID = 0; //the project id of a task without a project
 
-    public Project(String name) {
+    private final int id;
+    private final String name;
+
+    Project(int id, String name) {
+        this.id = id;
         this.name = name;
     }
 
+    public int getId() {
+        return id;
+    }
+
     public String getName() {
         return name;
     }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Project project && project.id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
+    }
 }
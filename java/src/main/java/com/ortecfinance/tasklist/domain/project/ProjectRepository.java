@@ -1,38 +1,173 @@
 package com.ortecfinance.tasklist.domain.project;
 
+import com.ortecfinance.tasklist.domain.ChangeJournal;
+import com.ortecfinance.tasklist.exceptions.DuplicateRecordException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntSupplier;
 
 @Repository
 public class ProjectRepository {
-    private final List<Project> projects = new ArrayList<>();
+    private static final Project CLAIMED = new Project(Project.NO_ID, null); //holds a name while its project is journaled
+    private static final int FIRST_CHUNK_SIZE = 16;
+
+    //chunk k holds the 16 << k ids after those of the chunks before it, so the table grows without moving projects
+    private final AtomicReferenceArray<AtomicReferenceArray<Project>> projectsById = new AtomicReferenceArray<>(28);
+    private final AtomicInteger lastId = new AtomicInteger();
+    private final ConcurrentMap<String, Project> projectsByName = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+    private volatile ChangeJournal journal = ChangeJournal.NONE;
+    private final Timer saveTimer;
+    private final Counter lookupHits;
+    private final Counter lookupMisses;
 
     private static ProjectRepository instance;
 
-    public static ProjectRepository getInstance() {
+    public static synchronized ProjectRepository getInstance() {
         if (instance == null) {
             instance = new ProjectRepository();
         }
         return instance;
     }
 
-    private ProjectRepository() {}
+    public ProjectRepository() {
+        this(Metrics.globalRegistry);
+    }
+
+    @Autowired
+    public ProjectRepository(MeterRegistry registry) {
+        saveTimer = Timer.builder("tasklist.repository.operations").tag("repository", "project").tag("operation", "save").register(registry);
+        lookupHits = Counter.builder("tasklist.repository.lookups").tag("repository", "project").tag("result", "hit").register(registry);
+        lookupMisses = Counter.builder("tasklist.repository.lookups").tag("repository", "project").tag("result", "miss").register(registry);
+        Gauge.builder("tasklist.projects", projectsByName, Map::size).register(registry);
+    }
+
+    public void setJournal(ChangeJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Creates a project with the next id. Creations do not wait for each other: the name is claimed and the id taken
+     * atomically, and the project becomes visible once journaled. Ids follow creation order without gaps, except for
+     * the id of a creation that could not be journaled.
+     */
+    public Project create(String name) {
+        return create(name, lastId::incrementAndGet);
+    }
 
-    public void save(Project project) {
-        projects.add(project);
+    /**
+     * Creates a project under the id it had before, for restoring it from the log.
+     */
+    public Project create(int id, String name) {
+        return create(name, () -> {
+            lastId.accumulateAndGet(id, Math::max);
+            return id;
+        });
     }
 
+    /**
+     * All projects in creation order.
+     */
     public List<Project> findAll() {
-        return projects;
+        int lastId = this.lastId.get();
+        List<Project> projects = new ArrayList<>(lastId);
+        for (int id = 1; id <= lastId; id++) {
+            Project project = project(id);
+            if (project != null) {
+                projects.add(project);
+            }
+        }
+        return Collections.unmodifiableList(projects);
+    }
+
+    public Optional<Project> findById(int id) {
+        Project project = id > 0 ? project(id) : null;
+        (project == null ? lookupMisses : lookupHits).increment();
+        return Optional.ofNullable(project);
     }
 
     public Optional<Project> findByName(String name) {
-        return projects.stream()
-                .filter(project -> Objects.equals(project.getName(), name))
-                .findFirst();
+        Project project = projectsByName.get(name);
+        if (project == CLAIMED) {
+            project = null;
+        }
+        (project == null ? lookupMisses : lookupHits).increment();
+        return Optional.ofNullable(project);
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public long lastModified() {
+        return lastModified;
+    }
+
+    private Project create(String name, IntSupplier ids) {
+        long start = System.nanoTime();
+        try {
+            if (projectsByName.putIfAbsent(name, CLAIMED) != null) {
+                throw duplicateName(name);
+            }
+            Project project = new Project(ids.getAsInt(), name);
+            //the project only becomes visible once journaled, so its tasks are always journaled after it
+            try (ChangeJournal.Entry ignored = journal.projectCreated(project)) {
+                chunk(project.getId(), true).set(offset(project.getId()), project);
+                projectsByName.put(name, project);
+            } catch (RuntimeException exception) {
+                projectsByName.remove(name, CLAIMED);
+                throw exception;
+            }
+            lastModified = System.currentTimeMillis();
+            version.incrementAndGet();
+            return project;
+        } finally {
+            saveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Project project(int id) {
+        AtomicReferenceArray<Project> chunk = chunk(id, false);
+        return chunk == null ? null : chunk.get(offset(id));
+    }
+
+    private AtomicReferenceArray<Project> chunk(int id, boolean create) {
+        int index = chunkIndex(id);
+        AtomicReferenceArray<Project> chunk = projectsById.get(index);
+        if (chunk == null && create) {
+            projectsById.compareAndSet(index, null, new AtomicReferenceArray<>(FIRST_CHUNK_SIZE << index));
+            chunk = projectsById.get(index);
+        }
+        return chunk;
+    }
+
+    private static int chunkIndex(int id) {
+        return 63 - Long.numberOfLeadingZeros(id + (long) FIRST_CHUNK_SIZE) - Integer.numberOfTrailingZeros(FIRST_CHUNK_SIZE);
+    }
+
+    private static int offset(int id) {
+        return (int) (id + (long) FIRST_CHUNK_SIZE - ((long) FIRST_CHUNK_SIZE << chunkIndex(id)));
+    }
+
+    private static DuplicateRecordException duplicateName(String name) {
+        return new DuplicateRecordException("A project with the name \"" + name + "\" already exists.");
     }
 }
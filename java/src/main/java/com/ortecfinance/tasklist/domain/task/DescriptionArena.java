@@ -0,0 +1,52 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only store of UTF-8 strings in direct (off-heap) buffers. A string is addressed by a {@code long} holding its
+ * chunk in the high and its offset in the low 32 bits. Appends must be serialized by the caller; reads may run
+ * concurrently with them.
+ */
+final class DescriptionArena {
+    static final long NULL = -1;
+    private static final int CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private int position = CHUNK_SIZE;
+
+    long append(String value) {
+        if (value == null) {
+            return NULL;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int required = Integer.BYTES + bytes.length;
+        ByteBuffer[] current = chunks;
+        if (current.length == 0 || position + required > current[current.length - 1].capacity()) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[current.length - 1] = ByteBuffer.allocateDirect(Math.max(CHUNK_SIZE, required));
+            position = 0;
+        }
+
+        int chunk = current.length - 1;
+        current[chunk].putInt(position, bytes.length).put(position + Integer.BYTES, bytes);
+        long reference = ((long) chunk << 32) | position;
+        position += required;
+        chunks = current;
+        return reference;
+    }
+
+    String get(long reference) {
+        if (reference == NULL) {
+            return null;
+        }
+
+        ByteBuffer chunk = chunks[(int) (reference >>> 32)];
+        int offset = (int) reference;
+        byte[] bytes = new byte[chunk.getInt(offset)];
+        chunk.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,310 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Inverted index from the words of task descriptions to the ids of the tasks using them. Words are runs of letters and
+ * digits, compared in lower case. Every word of a query matches as a prefix, and a task must match all of them.
+ * <p>
+ * A query word counts for the inverse document frequency of the word it matches, or half of it when it only matches
+ * the start of that word. Postings are kept sorted by id, so the query words are combined by merging or by binary
+ * search, starting with the rarest, without looking at the descriptions themselves.
+ * <p>
+ * Each postings list has its own lock, so tasks with different words are added in parallel. A search sees every
+ * postings list as it was when it got to it, not the whole index at one instant.
+ */
+final class DescriptionIndex {
+    private static final int INITIAL_POSTINGS = 4;
+
+    private final NavigableMap<String, Postings> postingsByWord = new ConcurrentSkipListMap<>();
+    private final AtomicInteger words = new AtomicInteger();
+    private final AtomicLong documents = new AtomicLong();
+
+    void add(long id, String description) {
+        List<String> words = new ArrayList<>();
+        forEachWord(description, words::add);
+        if (words.isEmpty()) {
+            return;
+        }
+
+        documents.incrementAndGet();
+        for (String word : words) {
+            postings(word).add(id);
+        }
+    }
+
+    private Postings postings(String word) {
+        Postings postings = postingsByWord.get(word);
+        if (postings == null) {
+            Postings created = new Postings();
+            postings = postingsByWord.putIfAbsent(word, created);
+            if (postings == null) {
+                words.incrementAndGet();
+                postings = created;
+            }
+        }
+        return postings;
+    }
+
+    int size() {
+        return words.get(); //counting the map itself walks all of it
+    }
+
+    /**
+     * The best {@code limit} tasks for {@code query}, highest score first and by id within a score.
+     */
+    List<Task> search(String query, int limit, LongFunction<Task> tasks) {
+        List<String> words = new ArrayList<>();
+        forEachWord(query, words::add);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        List<Term> terms = new ArrayList<>(words.size());
+        for (String word : words) {
+            terms.add(term(word));
+        }
+        terms.sort(Comparator.comparingLong(Term::postings));
+
+        Hits hits = terms.get(0).union();
+        for (int i = 1; i < terms.size() && hits.size > 0; i++) {
+            hits = terms.get(i).intersect(hits);
+        }
+        long[] ids = hits.best(limit);
+
+        List<Task> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Task task = tasks.apply(id);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    private Term term(String prefix) {
+        List<Map.Entry<String, Postings>> matches =
+                new ArrayList<>(postingsByWord.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet());
+        List<Ids> postings = new ArrayList<>(matches.size());
+        double[] weights = new double[matches.size()];
+        long documents = this.documents.get();
+        for (Map.Entry<String, Postings> match : matches) {
+            Ids ids = match.getValue().snapshot();
+            if (ids.size == 0) {
+                continue; //a word whose first task is still being added
+            }
+            double inverseFrequency = Math.log(1 + (double) documents / ids.size);
+            weights[postings.size()] = match.getKey().length() == prefix.length() ? inverseFrequency : inverseFrequency / 2;
+            postings.add(ids);
+        }
+        return new Term(postings, weights);
+    }
+
+    private static void forEachWord(String text, Consumer<String> action) {
+        if (text == null) {
+            return;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordCharacter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordCharacter && start < 0) {
+                start = i;
+            } else if (!wordCharacter && start >= 0) {
+                action.accept(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Sorted, distinct task ids. Ids mostly arrive in increasing order, so adding is nearly always an append. The
+     * part of the array a snapshot covers is never written again: appends go past it, and an insert or a resize
+     * makes a new array.
+     */
+    private static final class Postings {
+        private long[] ids = new long[INITIAL_POSTINGS];
+        private int size;
+
+        synchronized void add(long id) {
+            int position = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                position = -position - 1;
+            } else if (position < size) {
+                return; //a word used twice in the same description
+            }
+
+            if (position < size) {
+                long[] grown = new long[size == ids.length ? size * 2 : ids.length];
+                System.arraycopy(ids, 0, grown, 0, position);
+                System.arraycopy(ids, position, grown, position + 1, size - position);
+                ids = grown;
+            } else if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[position] = id;
+            size++;
+        }
+
+        synchronized Ids snapshot() {
+            return new Ids(ids, size);
+        }
+    }
+
+    /**
+     * The first {@code size} ids of a postings list.
+     */
+    private record Ids(long[] ids, int size) {
+
+        int indexOf(long id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+    }
+
+    /**
+     * The postings of every word starting with one query word, with the weight each gives a task.
+     */
+    private record Term(List<Ids> lists, double[] weights) {
+
+        long postings() {
+            long count = 0;
+            for (Ids postings : lists) {
+                count += postings.size;
+            }
+            return count;
+        }
+
+        Hits union() {
+            List<Hits> parts = new ArrayList<>(lists.size());
+            for (int i = 0; i < lists.size(); i++) {
+                Ids postings = lists.get(i);
+                double[] scores = new double[postings.size];
+                Arrays.fill(scores, weights[i]);
+                parts.add(new Hits(postings.ids, scores, postings.size));
+            }
+            while (parts.size() > 1) { //pairwise, so every id is copied about log(words) times
+                List<Hits> merged = new ArrayList<>((parts.size() + 1) / 2);
+                for (int i = 0; i < parts.size(); i += 2) {
+                    merged.add(i + 1 < parts.size() ? parts.get(i).union(parts.get(i + 1)) : parts.get(i));
+                }
+                parts = merged;
+            }
+            return parts.isEmpty() ? Hits.NONE : parts.get(0);
+        }
+
+        /**
+         * Keeps the hits that also match this term, adding its weight. Looks each hit up when there are few of them
+         * compared to the postings, otherwise merges with the union of the postings.
+         */
+        Hits intersect(Hits hits) {
+            long postings = postings();
+            if ((long) hits.size * lists.size() * 20 > postings) {
+                return hits.intersect(union());
+            }
+
+            long[] ids = new long[hits.size];
+            double[] scores = new double[hits.size];
+            int size = 0;
+            for (int i = 0; i < hits.size; i++) {
+                double best = 0;
+                for (int list = 0; list < lists.size(); list++) {
+                    if (weights[list] > best && lists.get(list).indexOf(hits.ids[i]) >= 0) {
+                        best = weights[list];
+                    }
+                }
+                if (best > 0) {
+                    ids[size] = hits.ids[i];
+                    scores[size++] = hits.scores[i] + best;
+                }
+            }
+            return new Hits(ids, scores, size);
+        }
+    }
+
+    /**
+     * Task ids in increasing order with their scores so far.
+     */
+    private record Hits(long[] ids, double[] scores, int size) {
+        static final Hits NONE = new Hits(new long[0], new double[0], 0);
+
+        /**
+         * Every id of either, with the higher of its scores.
+         */
+        Hits union(Hits other) {
+            long[] ids = new long[size + other.size];
+            double[] scores = new double[size + other.size];
+            int i = 0, j = 0, k = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && this.ids[i] < other.ids[j])) {
+                    ids[k] = this.ids[i];
+                    scores[k++] = this.scores[i++];
+                } else if (i == size || other.ids[j] < this.ids[i]) {
+                    ids[k] = other.ids[j];
+                    scores[k++] = other.scores[j++];
+                } else {
+                    ids[k] = this.ids[i];
+                    scores[k++] = Math.max(this.scores[i++], other.scores[j++]);
+                }
+            }
+            return new Hits(ids, scores, k);
+        }
+
+        /**
+         * The ids in both, with the sum of their scores.
+         */
+        Hits intersect(Hits other) {
+            long[] ids = new long[Math.min(size, other.size)];
+            double[] scores = new double[ids.length];
+            int i = 0, j = 0, k = 0;
+            while (i < size && j < other.size) {
+                if (this.ids[i] < other.ids[j]) {
+                    i++;
+                } else if (other.ids[j] < this.ids[i]) {
+                    j++;
+                } else {
+                    ids[k] = this.ids[i];
+                    scores[k++] = this.scores[i++] + other.scores[j++];
+                }
+            }
+            return new Hits(ids, scores, k);
+        }
+
+        /**
+         * The ids of the {@code limit} highest scores, highest first and lowest id first within a score.
+         */
+        long[] best(int limit) {
+            Comparator<Integer> ranking = (a, b) -> scores[a] != scores[b]
+                    ? Double.compare(scores[b], scores[a])
+                    : Long.compare(ids[a], ids[b]);
+            PriorityQueue<Integer> worstFirst = new PriorityQueue<>(limit + 1, ranking.reversed());
+            for (int i = 0; i < size; i++) {
+                //ids increase, so a later hit only replaces the worst one with a strictly higher score
+                if (worstFirst.size() < limit) {
+                    worstFirst.add(i);
+                } else if (scores[i] > scores[worstFirst.peek()]) {
+                    worstFirst.poll();
+                    worstFirst.add(i);
+                }
+            }
+
+            Integer[] best = worstFirst.toArray(new Integer[0]);
+            Arrays.sort(best, ranking);
+            long[] result = new long[best.length];
+            for (int i = 0; i < best.length; i++) {
+                result[i] = ids[best[i]];
+            }
+            return result;
+        }
+    }
+}
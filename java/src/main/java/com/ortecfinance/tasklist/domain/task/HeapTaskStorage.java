@@ -0,0 +1,50 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class HeapTaskStorage implements TaskStorage {
+    private final ConcurrentNavigableMap<Long, Task> tasks = new ConcurrentSkipListMap<>(); //ordered by id, which follows creation order
+    private final StripedTaskIndex tasksById = new StripedTaskIndex();
+    private final AtomicInteger size = new AtomicInteger(); //the skip list counts its entries on every call
+
+    @Override
+    public void put(Task task) {
+        if (tasksById.put(task.getId(), task) == null) {
+            size.incrementAndGet();
+        }
+        tasks.put(task.getId(), task);
+    }
+
+    @Override
+    public Task get(long id) {
+        return tasksById.get(id);
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public void updateStatus(Task task) {
+        //the stored task is the one that was changed
+    }
+
+    @Override
+    public void updateDueDate(Task task) {
+        //the stored task is the one that was changed
+    }
+
+    @Override
+    public Collection<Task> findAll() {
+        return tasks.values();
+    }
+
+    @Override
+    public boolean returnsLiveTasks() {
+        return true;
+    }
+}
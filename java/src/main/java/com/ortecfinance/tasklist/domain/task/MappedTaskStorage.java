@@ -0,0 +1,223 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Tasks stored column by column in a memory-mapped file, in chunks of {@value #CHUNK_ROWS} rows: ids, description
+ * references, due dates as epoch days, project ids and done flags. Descriptions live in a {@link DescriptionArena}, so
+ * the only per-task objects on the heap are the ones handed out by {@link #get}. Appends are serialized; reads run
+ * lock-free next to them.
+ */
+final class MappedTaskStorage implements TaskStorage {
+    static final String FILE_NAME = "tasks.columns";
+    private static final int CHUNK_ROWS = 64 * 1024;
+    private static final long CHUNK_BYTES = (long) CHUNK_ROWS * (Long.BYTES * 2 + Integer.BYTES * 3);
+    private static final int REFERENCES = CHUNK_ROWS * Long.BYTES;
+    private static final int DUE_DATES = REFERENCES * 2;
+    private static final int PROJECTS = DUE_DATES + CHUNK_ROWS * Integer.BYTES;
+    private static final int DONE = PROJECTS + CHUNK_ROWS * Integer.BYTES;
+    private static final int NO_DUE_DATE = Integer.MIN_VALUE;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final FileChannel channel;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final StampedLock indexLock = new StampedLock();
+    private final RowIndex rowsById = new RowIndex();
+    private final DescriptionArena descriptions = new DescriptionArena();
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+    private volatile int rows;
+
+    private MappedTaskStorage(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    static MappedTaskStorage create(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        //the file is scratch space for the running process, its previous content is never read back
+        return new MappedTaskStorage(FileChannel.open(directory.resolve(FILE_NAME), CREATE, READ, WRITE, TRUNCATE_EXISTING));
+    }
+
+    @Override
+    public void put(Task task) {
+        appendLock.lock();
+        try {
+            int row = rowOf(task.getId());
+            boolean append = row == RowIndex.ABSENT;
+            if (append) {
+                row = rows;
+                if (row / CHUNK_ROWS == chunks.length) {
+                    addChunk();
+                }
+            }
+
+            MappedByteBuffer chunk = chunks[row / CHUNK_ROWS];
+            int index = row % CHUNK_ROWS;
+            LONGS.setVolatile(chunk, index * Long.BYTES, task.getId());
+            LONGS.setVolatile(chunk, REFERENCES + index * Long.BYTES, description(chunk, index, append, task.getDescription()));
+            INTS.setVolatile(chunk, PROJECTS + index * Integer.BYTES, task.getProjectId());
+            writeDueDate(chunk, index, task.getDueDate());
+            writeDone(chunk, index, task.isDone());
+
+            if (append) {
+                long stamp = indexLock.writeLock();
+                try {
+                    rowsById.put(task.getId(), row);
+                } finally {
+                    indexLock.unlockWrite(stamp);
+                }
+                rows = row + 1;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public Task get(long id) {
+        int row = rowOf(id);
+        return row == RowIndex.ABSENT ? null : read(row);
+    }
+
+    @Override
+    public int size() {
+        return rows;
+    }
+
+    @Override
+    public void updateStatus(Task task) {
+        int row = rowOf(task.getId());
+        if (row != RowIndex.ABSENT) {
+            writeDone(chunks[row / CHUNK_ROWS], row % CHUNK_ROWS, task.isDone());
+        }
+    }
+
+    @Override
+    public void updateDueDate(Task task) {
+        int row = rowOf(task.getId());
+        if (row != RowIndex.ABSENT) {
+            writeDueDate(chunks[row / CHUNK_ROWS], row % CHUNK_ROWS, task.getDueDate());
+        }
+    }
+
+    @Override
+    public Collection<Task> findAll() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Task> iterator() {
+                int end = rows;
+                return new Iterator<>() {
+                    private int row;
+
+                    @Override
+                    public boolean hasNext() {
+                        return row < end;
+                    }
+
+                    @Override
+                    public Task next() {
+                        if (row >= end) {
+                            throw new NoSuchElementException();
+                        }
+                        return read(row++);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return rows;
+            }
+        };
+    }
+
+    @Override
+    public boolean returnsLiveTasks() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int rowOf(long id) {
+        long stamp = indexLock.tryOptimisticRead();
+        int row = rowsById.get(id);
+        if (!indexLock.validate(stamp)) {
+            stamp = indexLock.readLock();
+            try {
+                row = rowsById.get(id);
+            } finally {
+                indexLock.unlockRead(stamp);
+            }
+        }
+        return row;
+    }
+
+    private Task read(int row) {
+        MappedByteBuffer chunk = chunks[row / CHUNK_ROWS];
+        int index = row % CHUNK_ROWS;
+        long id = (long) LONGS.getVolatile(chunk, index * Long.BYTES);
+        String description = descriptions.get((long) LONGS.getVolatile(chunk, REFERENCES + index * Long.BYTES));
+        int project = (int) INTS.getVolatile(chunk, PROJECTS + index * Integer.BYTES);
+        int dueDate = (int) INTS.getVolatile(chunk, DUE_DATES + index * Integer.BYTES);
+        boolean done = (int) INTS.getVolatile(chunk, DONE + index * Integer.BYTES) != 0;
+        return new Task(id, project, description, done,
+                dueDate == NO_DUE_DATE ? null : LocalDate.ofEpochDay(dueDate));
+    }
+
+    /**
+     * The reference to store for {@code description}: the one already in the row when a task is stored again with the
+     * same text, so replaying a task does not append its description to the arena once more.
+     */
+    private long description(MappedByteBuffer chunk, int index, boolean append, String description) {
+        if (!append) {
+            long reference = (long) LONGS.getVolatile(chunk, REFERENCES + index * Long.BYTES);
+            if (Objects.equals(descriptions.get(reference), description)) {
+                return reference;
+            }
+        }
+        return descriptions.append(description);
+    }
+
+    private void writeDueDate(MappedByteBuffer chunk, int index, LocalDate dueDate) {
+        INTS.setVolatile(chunk, DUE_DATES + index * Integer.BYTES, dueDate == null ? NO_DUE_DATE : Math.toIntExact(dueDate.toEpochDay()));
+    }
+
+    private void writeDone(MappedByteBuffer chunk, int index, boolean done) {
+        INTS.setVolatile(chunk, DONE + index * Integer.BYTES, done ? 1 : 0);
+    }
+
+    private void addChunk() {
+        try {
+            MappedByteBuffer[] current = Arrays.copyOf(chunks, chunks.length + 1);
+            current[current.length - 1] = channel.map(FileChannel.MapMode.READ_WRITE, CHUNK_BYTES * chunks.length, CHUNK_BYTES);
+            chunks = current;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not grow the task storage file.", e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ortecfinance.tasklist.domain.task;
+
+/**
+ * Open-addressing hash map from task id to row number. Resizing swaps in a new table as a whole, so a reader that
+ * races with a writer sees either table completely and cannot run out of bounds.
+ */
+final class RowIndex {
+    static final int ABSENT = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+    private int size;
+
+    int get(long id) {
+        Table current = table;
+        int mask = current.ids.length - 1;
+        int slot = slot(id, mask);
+        for (int probes = 0; probes <= mask; probes++) {
+            int row = current.rows[slot] - 1; //rows are stored off by one, so 0 marks an empty slot
+            if (row < 0) {
+                return ABSENT;
+            }
+            if (current.ids[slot] == id) {
+                return row;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    void put(long id, int row) {
+        if ((size + 1) * 2 > table.ids.length) {
+            resize();
+        }
+        if (insert(table, id, row)) {
+            size++;
+        }
+    }
+
+    private void resize() {
+        Table current = table;
+        Table larger = new Table(current.ids.length * 2);
+        for (int slot = 0; slot < current.ids.length; slot++) {
+            if (current.rows[slot] != 0) {
+                insert(larger, current.ids[slot], current.rows[slot] - 1);
+            }
+        }
+        table = larger;
+    }
+
+    private static boolean insert(Table table, long id, int row) {
+        int mask = table.ids.length - 1;
+        int slot = slot(id, mask);
+        while (table.rows[slot] != 0) {
+            if (table.ids[slot] == id) {
+                table.rows[slot] = row + 1;
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table.ids[slot] = id;
+        table.rows[slot] = row + 1;
+        return true;
+    }
+
+    private static int slot(long id, int mask) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static final class Table {
+        final long[] ids;
+        final int[] rows;
+
+        Table(int capacity) {
+            ids = new long[capacity];
+            rows = new int[capacity];
+        }
+    }
+}
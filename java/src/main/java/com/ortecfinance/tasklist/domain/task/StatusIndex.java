@@ -0,0 +1,132 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import com.ortecfinance.tasklist.domain.project.Project;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmaps of all task ids, of the done ones and of those per project, so counts and status filters are answered by
+ * intersecting bitmaps instead of visiting tasks. Every bitmap has its own lock, so a status change only waits for
+ * readers of the done bitmap, and adding a task never holds more than one lock at a time.
+ */
+final class StatusIndex {
+    private final LockedBitmap all = new LockedBitmap();
+    private final LockedBitmap done = new LockedBitmap();
+    private volatile AtomicReferenceArray<LockedBitmap> byProject = new AtomicReferenceArray<>(16); //indexed by project id
+    private final Lock byProjectLock = new ReentrantLock();
+
+    void add(Task task) {
+        all.add(task.getId());
+        if (task.getProjectId() != Project.NO_ID) {
+            createProjectBitmap(task.getProjectId()).add(task.getId());
+        }
+        statusChanged(task.getId(), task.isDone());
+    }
+
+    void statusChanged(long id, boolean isDone) {
+        done.lock.writeLock().lock();
+        try {
+            if (isDone) {
+                done.bitmap.add(id);
+            } else {
+                done.bitmap.remove(id);
+            }
+        } finally {
+            done.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts of the tasks of one project, or of all tasks for {@link Project#NO_ID}.
+     */
+    TaskCounts counts(int projectId) {
+        LockedBitmap tasks = tasks(projectId);
+        if (tasks == null) {
+            return new TaskCounts(0, 0);
+        }
+        tasks.lock.readLock().lock();
+        done.lock.readLock().lock();
+        try {
+            return new TaskCounts(tasks.bitmap.cardinality(), tasks.bitmap.andCardinality(done.bitmap));
+        } finally {
+            done.lock.readLock().unlock();
+            tasks.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} ids after {@code afterId}, in increasing order, of the tasks of one project (or of all tasks
+     * for {@link Project#NO_ID}) that are done or open as asked.
+     */
+    long[] ids(int projectId, boolean isDone, long afterId, int limit) {
+        LockedBitmap tasks = tasks(projectId);
+        if (tasks == null || afterId == Long.MAX_VALUE) {
+            return new long[0];
+        }
+        tasks.lock.readLock().lock();
+        done.lock.readLock().lock();
+        try {
+            return tasks.bitmap.select(done.bitmap, isDone, afterId + 1, limit);
+        } finally {
+            done.lock.readLock().unlock();
+            tasks.lock.readLock().unlock();
+        }
+    }
+
+    private LockedBitmap tasks(int projectId) {
+        if (projectId == Project.NO_ID) {
+            return all;
+        }
+        AtomicReferenceArray<LockedBitmap> bitmaps = byProject;
+        return projectId < bitmaps.length() ? bitmaps.get(projectId) : null;
+    }
+
+    private LockedBitmap createProjectBitmap(int projectId) {
+        LockedBitmap bitmap = tasks(projectId);
+        if (bitmap != null) {
+            return bitmap;
+        }
+
+        byProjectLock.lock();
+        try {
+            AtomicReferenceArray<LockedBitmap> bitmaps = byProject;
+            if (projectId >= bitmaps.length()) {
+                AtomicReferenceArray<LockedBitmap> grown = new AtomicReferenceArray<>(Math.max(projectId + 1, bitmaps.length() * 2));
+                for (int i = 0; i < bitmaps.length(); i++) {
+                    grown.set(i, bitmaps.get(i));
+                }
+                byProject = bitmaps = grown;
+            }
+            bitmap = bitmaps.get(projectId);
+            if (bitmap == null) {
+                bitmap = new LockedBitmap();
+                bitmaps.set(projectId, bitmap);
+            }
+            return bitmap;
+        } finally {
+            byProjectLock.unlock();
+        }
+    }
+
+    /**
+     * A bitmap with the lock guarding it. Readers of two bitmaps lock the task bitmap before the done one; writers
+     * only ever hold one.
+     */
+    private static final class LockedBitmap {
+        private final TaskBitmap bitmap = new TaskBitmap();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void add(long id) {
+            lock.writeLock().lock();
+            try {
+                bitmap.add(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
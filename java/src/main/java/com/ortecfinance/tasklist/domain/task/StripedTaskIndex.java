@@ -0,0 +1,55 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe id index made of independently locked {@link TaskIndex} stripes, so writers to different ids
+ * rarely contend on the same lock.
+ */
+final class StripedTaskIndex {
+    private final TaskIndex[] stripes;
+    private final ReadWriteLock[] locks;
+    private final int mask;
+
+    StripedTaskIndex() {
+        this(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1);
+    }
+
+    StripedTaskIndex(int stripeCount) {
+        if (Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two, was " + stripeCount);
+        }
+        stripes = new TaskIndex[stripeCount];
+        locks = new ReadWriteLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new TaskIndex();
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        mask = stripeCount - 1;
+    }
+
+    Task get(long id) {
+        int stripe = stripe(id);
+        locks[stripe].readLock().lock();
+        try {
+            return stripes[stripe].get(id);
+        } finally {
+            locks[stripe].readLock().unlock();
+        }
+    }
+
+    Task put(long id, Task task) {
+        int stripe = stripe(id);
+        locks[stripe].writeLock().lock();
+        try {
+            return stripes[stripe].put(id, task);
+        } finally {
+            locks[stripe].writeLock().unlock();
+        }
+    }
+
+    private int stripe(long id) {
+        return (int) id & mask; //ids are handed out sequentially, so consecutive inserts land on different stripes
+    }
+}
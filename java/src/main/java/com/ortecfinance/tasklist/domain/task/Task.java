@@ -4,26 +4,33 @@ import com.ortecfinance.tasklist.domain.project.Project;
 
 import java.time.LocalDate;
 
+/**
+ * A task refers to its project by id, {@link Project#NO_ID} if it has none.
+ */
 public final class Task {
     private final long id;
     private final String description;
-    private LocalDate dueDate;
-    private boolean done;
-    private Project project;
-
-    private static long lastId = 0;
+    private final int projectId;
+    private volatile LocalDate dueDate;
+    private volatile boolean done;
 
     public Task(long id, String description, boolean done) {
         this.id = id;
         this.description = description;
         this.done = done;
+        this.projectId = Project.NO_ID;
+    }
+
+    public Task(long id, int projectId, String description) {
+        this(id, projectId, description, false, null);
     }
 
-    public Task(Project project, String description) {
-        this.project = project;
+    public Task(long id, int projectId, String description, boolean done, LocalDate dueDate) {
+        this.id = id;
+        this.projectId = projectId;
         this.description = description;
-        id = nextId();
-        done = false;
+        this.done = done;
+        this.dueDate = dueDate;
     }
 
     public long getId() {
@@ -42,19 +49,15 @@ public final class Task {
         return done;
     }
 
-    public Project getProject() {
-        return project;
+    public int getProjectId() {
+        return projectId;
     }
 
-    public void setDone(boolean done) {
+    void setDone(boolean done) {
         this.done = done;
     }
 
-    public void setDueDate(LocalDate dueDate) {
+    void setDueDate(LocalDate dueDate) {
         this.dueDate = dueDate;
     }
-
-    private long nextId() {
-        return ++lastId;
-    }
 }
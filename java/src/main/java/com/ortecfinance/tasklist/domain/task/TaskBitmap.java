@@ -0,0 +1,381 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of task ids in the style of a Roaring bitmap. Ids are split into chunks of 65536 by their high bits.
+ * A chunk holds its low 16 bits either as a sorted {@code char[]} or, past {@value #ARRAY_LIMIT} ids, as a 65536-bit
+ * {@code long[]}. Not thread-safe.
+ */
+final class TaskBitmap {
+    private static final int ARRAY_LIMIT = 4096; //beyond this a sorted array takes more space than the 8KB of bits
+    private static final TaskBitmap EMPTY = new TaskBitmap(); //never changed, so safe to share
+
+    private long[] keys = new long[4];
+    private Chunk[] chunks = new Chunk[4];
+    private int chunkCount;
+    private int cardinality;
+
+    boolean add(long id) {
+        int index = chunkIndex(id >>> 16);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, id >>> 16);
+        }
+        int before = chunks[index].cardinality();
+        chunks[index] = chunks[index].add((char) id);
+        return changed(before, chunks[index].cardinality());
+    }
+
+    boolean remove(long id) {
+        int index = chunkIndex(id >>> 16);
+        if (index < 0) {
+            return false;
+        }
+        int before = chunks[index].cardinality();
+        chunks[index] = chunks[index].remove((char) id);
+        return changed(before, chunks[index].cardinality());
+    }
+
+    boolean contains(long id) {
+        int index = chunkIndex(id >>> 16);
+        return index >= 0 && chunks[index].contains((char) id);
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Number of ids in both bitmaps, counted chunk by chunk without building the intersection.
+     */
+    int andCardinality(TaskBitmap other) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                count += chunks[i++].andCardinality(other.chunks[j++]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The smallest id in the bitmap that is at least {@code from}, or -1 if there is none.
+     */
+    long next(long from) {
+        from = Math.max(from, 0);
+        int index = chunkIndex(from >>> 16);
+        int low = (char) from;
+        if (index < 0) {
+            index = -index - 1;
+            low = 0;
+        }
+        for (; index < chunkCount; index++, low = 0) {
+            int next = chunks[index].next(low);
+            if (next >= 0) {
+                return keys[index] << 16 | next;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Up to {@code limit} ids of this bitmap that are at least {@code from}, in increasing order, that are in
+     * {@code other} or not as asked. Works chunk by chunk, on 64 ids at a time where this chunk is bits.
+     */
+    long[] select(TaskBitmap other, boolean inOther, long from, int limit) {
+        from = Math.max(from, 0);
+        long[] ids = new long[Math.min(limit, cardinality)];
+        int count = 0;
+        int index = chunkIndex(from >>> 16);
+        int low = (char) from;
+        if (index < 0) {
+            index = -index - 1;
+            low = 0;
+        }
+        int otherIndex = 0;
+        for (; index < chunkCount && count < ids.length; index++, low = 0) {
+            while (otherIndex < other.chunkCount && other.keys[otherIndex] < keys[index]) {
+                otherIndex++;
+            }
+            Chunk match = otherIndex < other.chunkCount && other.keys[otherIndex] == keys[index] ? other.chunks[otherIndex] : null;
+            if (match != null || !inOther) {
+                count = chunks[index].select(match, inOther, low, keys[index] << 16, ids, count);
+            }
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Up to {@code limit} ids of this bitmap that are at least {@code from}, in increasing order.
+     */
+    long[] ids(long from, int limit) {
+        return select(EMPTY, false, from, limit);
+    }
+
+    private boolean changed(int before, int after) {
+        cardinality += after - before;
+        return before != after;
+    }
+
+    private int chunkIndex(long key) {
+        if (chunkCount > 0 && keys[chunkCount - 1] == key) {
+            return chunkCount - 1; //ids mostly grow, so the last chunk is the usual one
+        }
+        return Arrays.binarySearch(keys, 0, chunkCount, key);
+    }
+
+    private void insertChunk(int index, long key) {
+        if (chunkCount == keys.length) {
+            keys = Arrays.copyOf(keys, chunkCount * 2);
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, chunkCount - index);
+        System.arraycopy(chunks, index, chunks, index + 1, chunkCount - index);
+        keys[index] = key;
+        chunks[index] = new ArrayChunk();
+        chunkCount++;
+    }
+
+    private sealed interface Chunk permits ArrayChunk, BitsChunk {
+        Chunk add(char value);
+
+        Chunk remove(char value);
+
+        boolean contains(char value);
+
+        int cardinality();
+
+        int andCardinality(Chunk other);
+
+        /**
+         * The smallest value that is at least {@code from}, or -1.
+         */
+        int next(int from);
+
+        /**
+         * Appends {@code high} plus each value from {@code from} on that is in {@code other} (a missing chunk when
+         * {@code null}) or not as asked, until {@code into} is full, and returns the new count.
+         */
+        int select(Chunk other, boolean inOther, int from, long high, long[] into, int count);
+    }
+
+    private static final class ArrayChunk implements Chunk {
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        public Chunk add(char value) {
+            int index = size > 0 && values[size - 1] < value ? -size - 1 : Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (size == ARRAY_LIMIT) {
+                return new BitsChunk(this).add(value);
+            }
+            index = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(size * 2, ARRAY_LIMIT));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        public Chunk remove(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+
+        @Override
+        public int andCardinality(Chunk other) {
+            if (other instanceof BitsChunk bits) {
+                return bits.andCardinality(this);
+            }
+            ArrayChunk array = (ArrayChunk) other;
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size && j < array.size) {
+                if (values[i] < array.values[j]) {
+                    i++;
+                } else if (values[i] > array.values[j]) {
+                    j++;
+                } else {
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public int next(int from) {
+            int index = indexFrom(from);
+            return index < size ? values[index] : -1;
+        }
+
+        @Override
+        public int select(Chunk other, boolean inOther, int from, long high, long[] into, int count) {
+            ArrayChunk array = other instanceof ArrayChunk a ? a : null;
+            int j = array == null ? 0 : array.indexFrom(from);
+            for (int i = indexFrom(from); i < size && count < into.length; i++) {
+                char value = values[i];
+                boolean inIt;
+                if (array != null) {
+                    while (j < array.size && array.values[j] < value) {
+                        j++;
+                    }
+                    inIt = j < array.size && array.values[j] == value;
+                } else {
+                    inIt = other != null && other.contains(value);
+                }
+                if (inIt == inOther) {
+                    into[count++] = high | value;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * The index of the first value that is at least {@code from}, or {@code size}.
+         */
+        private int indexFrom(int from) {
+            int index = Arrays.binarySearch(values, 0, size, (char) from);
+            return index < 0 ? -index - 1 : index;
+        }
+    }
+
+    private static final class BitsChunk implements Chunk {
+        private final long[] words = new long[1024];
+        private int cardinality;
+
+        BitsChunk(ArrayChunk array) {
+            for (int i = 0; i < array.size; i++) {
+                words[array.values[i] >>> 6] |= 1L << array.values[i];
+            }
+            cardinality = array.size;
+        }
+
+        @Override
+        public Chunk add(char value) {
+            long word = words[value >>> 6];
+            long bit = 1L << value;
+            if ((word & bit) == 0) {
+                words[value >>> 6] = word | bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Chunk remove(char value) {
+            long word = words[value >>> 6];
+            long bit = 1L << value;
+            if ((word & bit) == 0) {
+                return this;
+            }
+            words[value >>> 6] = word & ~bit;
+            cardinality--;
+            return cardinality < ARRAY_LIMIT / 2 ? toArray() : this; //hysteresis, so a chunk at the limit does not flip back and forth
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public int andCardinality(Chunk other) {
+            int count = 0;
+            if (other instanceof BitsChunk bits) {
+                for (int i = 0; i < words.length; i++) {
+                    count += Long.bitCount(words[i] & bits.words[i]);
+                }
+            } else {
+                ArrayChunk array = (ArrayChunk) other;
+                for (int i = 0; i < array.size; i++) {
+                    if (contains(array.values[i])) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public int next(int from) {
+            int index = from >>> 6;
+            long word = words[index] & (-1L << from);
+            while (word == 0) {
+                if (++index == words.length) {
+                    return -1;
+                }
+                word = words[index];
+            }
+            return index << 6 | Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        public int select(Chunk other, boolean inOther, int from, long high, long[] into, int count) {
+            long[] otherWords = other instanceof BitsChunk bits ? bits.words : null;
+            ArrayChunk array = other instanceof ArrayChunk a ? a : null;
+            int j = array == null ? 0 : array.indexFrom(from & ~63);
+            for (int i = from >>> 6; i < words.length && count < into.length; i++) {
+                long mask = 0;
+                if (otherWords != null) {
+                    mask = otherWords[i];
+                } else if (array != null) {
+                    for (; j < array.size && array.values[j] >>> 6 == i; j++) {
+                        mask |= 1L << array.values[j];
+                    }
+                }
+                long word = words[i] & (inOther ? mask : ~mask);
+                if (i == from >>> 6) {
+                    word &= -1L << from;
+                }
+                for (; word != 0 && count < into.length; word &= word - 1) {
+                    into[count++] = high | (long) i << 6 | Long.numberOfTrailingZeros(word);
+                }
+            }
+            return count;
+        }
+
+        private ArrayChunk toArray() {
+            ArrayChunk array = new ArrayChunk();
+            array.values = new char[Math.max(cardinality, 4)];
+            for (int value = next(0); value >= 0; value = value == 0xFFFF ? -1 : next(value + 1)) {
+                array.values[array.size++] = (char) value;
+            }
+            return array;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Group of task ids in ascending order that hands out an immutable copy of its tasks, rebuilt only after it changed.
+ * The ids are kept in a {@link TaskBitmap}, so a task costs a few bits here rather than a boxed id and a list node.
+ */
+final class TaskBucket {
+    private static final int PAGE_SIZE = 256;
+
+    private final TaskBitmap ids = new TaskBitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongFunction<Task> tasks;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(0, List.of());
+
+    TaskBucket(LongFunction<Task> tasks) {
+        this.tasks = tasks;
+    }
+
+    void add(long id) {
+        lock.writeLock().lock();
+        try {
+            ids.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        version.incrementAndGet();
+    }
+
+    void remove(long id) {
+        boolean removed;
+        lock.writeLock().lock();
+        try {
+            removed = ids.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (removed) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drops the cached copy, for when a task in the bucket changed without being added or removed.
+     */
+    void invalidate() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * The tasks after {@code id}, read a page of ids at a time, so the lock is never held while the caller consumes them.
+     */
+    Stream<Task> streamAfter(long id) {
+        if (id == Long.MAX_VALUE) {
+            return Stream.empty();
+        }
+        //a short page does not end the stream, so tasks added behind it while the caller reads are still seen
+        return Stream.iterate(page(id + 1), page -> page.length > 0, page -> page(page[page.length - 1] + 1))
+                .flatMapToLong(LongStream::of)
+                .mapToObj(tasks)
+                .filter(Objects::nonNull);
+    }
+
+    boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return ids.cardinality() == 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] page(long from) {
+        lock.readLock().lock();
+        try {
+            return ids.ids(from, PAGE_SIZE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Task> snapshot() {
+        Snapshot current = snapshot;
+        long currentVersion = version.get();
+        if (current.version() != currentVersion) {
+            //a concurrent write may already be in the copy; it then gets copied once more on the next read
+            current = new Snapshot(currentVersion, streamAfter(Long.MIN_VALUE).toList());
+            snapshot = current;
+        }
+        return current.tasks();
+    }
+
+    private record Snapshot(long version, List<Task> tasks) {}
+}
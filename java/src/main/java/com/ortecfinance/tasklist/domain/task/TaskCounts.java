@@ -0,0 +1,10 @@
+package com.ortecfinance.tasklist.domain.task;
+
+public record TaskCounts(
+        int total,
+        int done
+) {
+    public int open() {
+        return total - done;
+    }
+}
@@ -0,0 +1,72 @@
+package com.ortecfinance.tasklist.domain.task;
+
+/**
+ * Open-addressing hash map from task id to task. Keys are kept in a {@code long[]} so lookups never box the id.
+ */
+final class TaskIndex {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Task[] values = new Task[INITIAL_CAPACITY];
+    private int size;
+
+    Task get(long id) {
+        int mask = keys.length - 1;
+        for (int slot = slot(id, mask); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+
+    Task put(long id, Task task) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+
+        int mask = keys.length - 1;
+        int slot = slot(id, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == id) {
+                Task previous = values[slot];
+                values[slot] = task;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = id;
+        values[slot] = task;
+        size++;
+        return null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Task[] oldValues = values;
+        keys = new long[capacity];
+        values = new Task[capacity];
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i], mask);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(long id, int mask) {
+        long hash = id * 0x9E3779B97F4A7C15L; //fibonacci hashing spreads sequential ids over the table
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -1,46 +1,488 @@
 package com.ortecfinance.tasklist.domain.task;
 
+import com.ortecfinance.tasklist.domain.ChangeJournal;
 import com.ortecfinance.tasklist.domain.project.Project;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Repository
 public class TaskRepository {
-    private final List<Task> tasks = new ArrayList<>();
+    public static final LocalDate NO_DEADLINE = LocalDate.MAX; //sorts tasks without a deadline after all others
+    public static final LocalDate MIN_DUE_DATE = LocalDate.ofEpochDay(Integer.MIN_VALUE + 1); //stored as an int epoch day, the minimum marks no due date
+    public static final LocalDate MAX_DUE_DATE = LocalDate.ofEpochDay(Integer.MAX_VALUE);
+    public static final long MAX_ID = Integer.MAX_VALUE; //the console addresses tasks by int
+
+    private static final int LOCK_STRIPES = 256;
+
+    private final TaskStorage storage;
+    private final Lock[] taskLocks = new Lock[LOCK_STRIPES]; //tasks read from storage may be copies, so they cannot be locked on themselves
+    private volatile AtomicReferenceArray<TaskBucket> tasksByProject = new AtomicReferenceArray<>(16); //indexed by project id
+    private final Lock projectBucketsLock = new ReentrantLock();
+    private final ConcurrentNavigableMap<LocalDate, TaskBucket> tasksByDueDate = new ConcurrentSkipListMap<>();
+    private final DescriptionIndex descriptionIndex = new DescriptionIndex();
+    private final StatusIndex statusIndex = new StatusIndex();
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+    private final AtomicLong lastId = new AtomicLong();
+    private final Set<Long> claimedIds = ConcurrentHashMap.newKeySet(); //ids of tasks on their way into storage
+    private volatile ChangeJournal journal = ChangeJournal.NONE;
+    private final Timer saveTimer;
+    private final Timer saveAllTimer;
+    private final Timer changeStatusTimer;
+    private final Timer changeDueDateTimer;
+    private final Timer searchTimer;
+    private final Counter lookupHits;
+    private final Counter lookupMisses;
 
     private static TaskRepository instance;
 
-    public static TaskRepository getInstance() {
+    public static synchronized TaskRepository getInstance() {
         if (instance == null) {
             instance = new TaskRepository();
         }
         return instance;
     }
 
-    private TaskRepository() {}
+    public TaskRepository() {
+        this(TaskStorage.onHeap());
+    }
+
+    public TaskRepository(TaskStorage storage) {
+        this(storage, Metrics.globalRegistry);
+    }
+
+    /**
+     * Writes are timed; lookups by id are only counted, since timing them would cost about as much as the lookup.
+     */
+    @Autowired
+    public TaskRepository(TaskStorage storage, MeterRegistry registry) {
+        this.storage = storage;
+        Arrays.setAll(taskLocks, stripe -> new ReentrantLock());
+
+        saveTimer = operationTimer(registry, "save");
+        saveAllTimer = operationTimer(registry, "saveAll");
+        changeStatusTimer = operationTimer(registry, "changeStatus");
+        changeDueDateTimer = operationTimer(registry, "changeDueDate");
+        searchTimer = operationTimer(registry, "search");
+        lookupHits = Counter.builder("tasklist.repository.lookups").tag("repository", "task").tag("result", "hit").register(registry);
+        lookupMisses = Counter.builder("tasklist.repository.lookups").tag("repository", "task").tag("result", "miss").register(registry);
+        Gauge.builder("tasklist.tasks", storage, TaskStorage::size).register(registry);
+        Gauge.builder("tasklist.index.size", this, TaskRepository::projectBucketCount).tag("index", "project").register(registry);
+        Gauge.builder("tasklist.index.size", tasksByDueDate, Map::size).tag("index", "deadline").register(registry);
+        Gauge.builder("tasklist.index.size", descriptionIndex, DescriptionIndex::size).tag("index", "description").register(registry);
+    }
+
+    public void setJournal(ChangeJournal journal) {
+        this.journal = journal;
+    }
+
+    public long nextId() {
+        return lastId.incrementAndGet();
+    }
+
+    /**
+     * Keeps {@link #nextId()} from handing out {@code id}, for a task that brings its own id and is saved later.
+     */
+    public void reserveId(long id) {
+        lastId.accumulateAndGet(id, Math::max);
+    }
 
     public Task save(Task task) {
-        tasks.add(task);
-        return tasks.get(tasks.size() - 1);
+        return save(task, saved -> {});
+    }
+
+    /**
+     * Saves the task, under a new id if its own was taken by another task in the meantime, and returns it as saved.
+     * {@code onSaved} runs once the task is visible, with its lock held, so it hears of the task before any change to it.
+     */
+    public Task save(Task task, Consumer<Task> onSaved) {
+        long start = System.nanoTime();
+        Task claimed = claim(task);
+        try (ChangeJournal.Entry ignored = journal.taskCreated(claimed)) {
+            indexLocked(claimed, onSaved);
+        } finally {
+            claimedIds.remove(claimed.getId());
+        }
+        modified();
+        saveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claimed;
+    }
+
+    public List<Task> saveAll(Collection<Task> tasks) {
+        return saveAll(tasks, saved -> {});
     }
 
-    public List<Task> findAll() {
+    /**
+     * Saves the tasks with a single version change, so cached views are rebuilt once for the whole batch. Like
+     * {@link #save}, a task whose id is taken gets a new one, and {@code onSaved} runs for every task; the tasks are
+     * returned as saved, in order.
+     */
+    public List<Task> saveAll(Collection<Task> tasks, Consumer<Task> onSaved) {
+        long start = System.nanoTime();
+        List<Task> claimed = new ArrayList<>(tasks.size());
+        try {
+            for (Task task : tasks) {
+                claimed.add(claim(task));
+            }
+            try (ChangeJournal.Entry ignored = journal.tasksCreated(claimed)) {
+                claimed.forEach(task -> indexLocked(task, onSaved));
+            }
+        } finally {
+            claimed.forEach(task -> claimedIds.remove(task.getId()));
+        }
+        modified();
+        saveAllTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claimed;
+    }
+
+    public void changeStatus(Task task, boolean done) {
+        changeStatus(task, done, changed -> {});
+    }
+
+    /**
+     * Changes the status; {@code onChanged} runs with the task's lock still held, so it hears of the changes to a task
+     * in the order they were made.
+     */
+    public void changeStatus(Task task, boolean done, Consumer<Task> onChanged) {
+        long start = System.nanoTime();
+        //a lock rather than a monitor: journaling may wait for an fsync, which would pin a virtual thread to its carrier
+        Lock lock = lockFor(task);
+        lock.lock();
+        try (ChangeJournal.Entry ignored = journal.taskStatusChanged(task, done)) {
+            task.setDone(done);
+            storage.updateStatus(task);
+            statusIndex.statusChanged(task.getId(), done);
+            if (!storage.returnsLiveTasks()) {
+                invalidateBuckets(task, task.getDueDate());
+            }
+            onChanged.accept(task);
+        } finally {
+            lock.unlock();
+        }
+        modified();
+        changeStatusTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public void changeDueDate(Task task, LocalDate dueDate) {
+        changeDueDate(task, dueDate, changed -> {});
+    }
+
+    /**
+     * Changes the due date; {@code onChanged} runs like for {@link #changeStatus(Task, boolean, Consumer)}.
+     */
+    public void changeDueDate(Task task, LocalDate dueDate, Consumer<Task> onChanged) {
+        long start = System.nanoTime();
+        Lock lock = lockFor(task);
+        lock.lock();
+        try (ChangeJournal.Entry ignored = journal.taskDueDateChanged(task, dueDate)) {
+            Task stored = storage.get(task.getId());
+            LocalDate previous = stored == null ? task.getDueDate() : stored.getDueDate();
+            task.setDueDate(dueDate);
+            storage.updateDueDate(task);
+            if (!Objects.equals(previous, dueDate)) {
+                dueDateBucket(dueDate).add(task.getId());
+                dueDateBucket(previous).remove(task.getId());
+            }
+            if (!storage.returnsLiveTasks()) {
+                invalidateBuckets(task, dueDate);
+            }
+            onChanged.accept(task);
+        } finally {
+            lock.unlock();
+        }
+        modified();
+        changeDueDateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public Collection<Task> findAll() {
+        return storage.findAll();
+    }
+
+    public Optional<Task> findById(long id) {
+        Task task = storage.get(id);
+        (task == null ? lookupMisses : lookupHits).increment();
+        return Optional.ofNullable(task);
+    }
+
+    public List<Task> findAllByProject(Project project) {
+        TaskBucket bucket = projectBucket(project.getId());
+        return bucket == null ? List.of() : bucket.snapshot();
+    }
+
+    public Stream<Task> streamAllByProject(Project project, long afterId) {
+        TaskBucket bucket = projectBucket(project.getId());
+        return bucket == null ? Stream.empty() : bucket.streamAfter(afterId);
+    }
+
+    /**
+     * Lazily walks the tasks of {@code projects} in turn, starting after task {@code afterId} within the first one.
+     */
+    public Stream<Task> streamAllByProjects(List<Project> projects, long afterId) {
+        Project first = projects.isEmpty() ? null : projects.get(0);
+        return concat(projects.iterator(), project -> streamAllByProject(project, project == first ? afterId : Long.MIN_VALUE));
+    }
+
+    public NavigableMap<LocalDate, List<Task>> findAllGroupedByDueDate() {
+        NavigableMap<LocalDate, List<Task>> tasksByDate = new TreeMap<>();
+        tasksByDueDate.forEach((date, bucket) -> {
+            List<Task> tasks = bucket.snapshot();
+            if (!tasks.isEmpty()) { //buckets are kept once created, a deadline change can leave one empty
+                tasksByDate.put(date, tasks);
+            }
+        });
+        return tasksByDate;
+    }
+
+    public NavigableMap<LocalDate, List<Task>> findAllDueBetween(LocalDate from, LocalDate to, Predicate<Task> filter) {
+        NavigableMap<LocalDate, List<Task>> tasksByDate = new TreeMap<>();
+        tasksByDueDate.subMap(from, true, to, true).forEach((date, bucket) -> {
+            List<Task> tasks = bucket.snapshot().stream()
+                    .filter(filter)
+                    .toList();
+            if (!tasks.isEmpty()) {
+                tasksByDate.put(date, tasks);
+            }
+        });
+        return tasksByDate;
+    }
+
+    /**
+     * The due dates that have a bucket in the deadline index, in order. A bucket may have become empty.
+     */
+    public NavigableSet<LocalDate> findAllDueDates() {
+        return tasksByDueDate.keySet();
+    }
+
+    public Stream<Task> streamAllDueOn(LocalDate dueDate) {
+        TaskBucket bucket = tasksByDueDate.get(dueDate);
+        return bucket == null ? Stream.empty() : bucket.streamAfter(Long.MIN_VALUE);
+    }
+
+    /**
+     * Lazily walks the deadline index in (due date, id) order, starting after task {@code afterId} within {@code dueDate}.
+     */
+    public Stream<Task> streamAllByDueDate(LocalDate dueDate, long afterId) {
+        return concat(tasksByDueDate.tailMap(dueDate, true).entrySet().iterator(), entry -> entry.getKey().equals(dueDate)
+                ? entry.getValue().streamAfter(afterId)
+                : entry.getValue().streamAfter(Long.MIN_VALUE));
+    }
+
+    /**
+     * The tasks of each group in turn, pulled one at a time. An iterator over {@code flatMap} would instead take in
+     * all tasks of a group before returning its first.
+     */
+    private static <G> Stream<Task> concat(Iterator<G> groups, Function<G, Stream<Task>> tasks) {
+        Spliterator<Task> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private Spliterator<Task> current = Spliterators.emptySpliterator();
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Task> action) {
+                while (!current.tryAdvance(action)) {
+                    if (!groups.hasNext()) {
+                        return false;
+                    }
+                    current = tasks.apply(groups.next()).spliterator();
+                }
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    public TaskCounts countByProject(Project project) {
+        return statusIndex.counts(project.getId());
+    }
+
+    /**
+     * Counts for each of {@code projects}, in the same order.
+     */
+    public Map<Project, TaskCounts> countAllByProject(Iterable<Project> projects) {
+        Map<Project, TaskCounts> counts = new LinkedHashMap<>();
+        for (Project project : projects) {
+            counts.put(project, statusIndex.counts(project.getId()));
+        }
+        return counts;
+    }
+
+    /**
+     * Up to {@code limit} done or open tasks with an id above {@code afterId}, by id, of one project or of all
+     * projects when {@code project} is {@code null}.
+     */
+    public List<Task> findAllByStatus(Project project, boolean done, long afterId, int limit) {
+        long[] ids = statusIndex.ids(project == null ? Project.NO_ID : project.getId(), done, afterId, limit);
+        List<Task> tasks = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Task task = storage.get(id);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
         return tasks;
     }
 
-    public Optional<Task> findById(int id) {
-        return tasks.stream()
-                .filter(task -> task.getId() == id)
-                .findFirst();
+    /**
+     * Tasks whose description contains a word starting with each word of {@code query}, best matches first.
+     */
+    public List<Task> search(String query, int limit) {
+        return searchTimer.record(() -> descriptionIndex.search(query, limit, storage::get));
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Time of the last change in epoch milliseconds, or of the creation of the repository if nothing changed yet.
+     */
+    public long lastModified() {
+        return lastModified;
+    }
+
+    private static Timer operationTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("tasklist.repository.operations").tag("repository", "task").tag("operation", operation).register(registry);
+    }
+
+    private void modified() {
+        lastModified = System.currentTimeMillis();
+        version.incrementAndGet(); //after the time, so a reader that sees the new version also sees its time
+    }
+
+    /**
+     * Claims the id of the task until it is stored, or a new id when another task holds or claims it. Claiming comes
+     * before journaling, so the log never holds two tasks with one id.
+     */
+    private Task claim(Task task) {
+        Task claimed = task;
+        while (!claimId(claimed.getId())) {
+            claimed = new Task(nextId(), task.getProjectId(), task.getDescription(), task.isDone(), task.getDueDate());
+        }
+        lastId.accumulateAndGet(claimed.getId(), Math::max); //tasks restored with their own id must not collide with new ones
+        return claimed;
+    }
+
+    private boolean claimId(long id) {
+        if (storage.get(id) != null || !claimedIds.add(id)) {
+            return false;
+        }
+        if (storage.get(id) != null) { //stored, and its claim released, between the two checks
+            claimedIds.remove(id);
+            return false;
+        }
+        return true;
+    }
+
+    private void index(Task task) {
+        storage.put(task);
+        if (task.getProjectId() != Project.NO_ID) {
+            createProjectBucket(task.getProjectId()).add(task.getId());
+        }
+        dueDateBucket(task.getDueDate()).add(task.getId());
+        descriptionIndex.add(task.getId(), task.getDescription());
+        statusIndex.add(task);
+    }
+
+    private void indexLocked(Task task, Consumer<Task> onSaved) {
+        Lock lock = lockFor(task);
+        lock.lock();
+        try {
+            index(task);
+            onSaved.accept(task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lock lockFor(Task task) {
+        return taskLocks[(int) task.getId() & (LOCK_STRIPES - 1)];
+    }
+
+    private void invalidateBuckets(Task task, LocalDate dueDate) {
+        TaskBucket projectBucket = projectBucket(task.getProjectId());
+        if (projectBucket != null) {
+            projectBucket.invalidate();
+        }
+        dueDateBucket(dueDate).invalidate();
+    }
+
+    private TaskBucket projectBucket(int projectId) {
+        AtomicReferenceArray<TaskBucket> buckets = tasksByProject;
+        return projectId < buckets.length() ? buckets.get(projectId) : null;
+    }
+
+    private TaskBucket createProjectBucket(int projectId) {
+        TaskBucket bucket = projectBucket(projectId);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        projectBucketsLock.lock();
+        try {
+            AtomicReferenceArray<TaskBucket> buckets = tasksByProject;
+            if (projectId >= buckets.length()) {
+                AtomicReferenceArray<TaskBucket> grown = new AtomicReferenceArray<>(Math.max(projectId + 1, buckets.length() * 2));
+                for (int i = 0; i < buckets.length(); i++) {
+                    grown.set(i, buckets.get(i));
+                }
+                tasksByProject = buckets = grown;
+            }
+            bucket = buckets.get(projectId);
+            if (bucket == null) {
+                bucket = new TaskBucket(storage::get);
+                buckets.set(projectId, bucket);
+            }
+            return bucket;
+        } finally {
+            projectBucketsLock.unlock();
+        }
+    }
+
+    private int projectBucketCount() {
+        AtomicReferenceArray<TaskBucket> buckets = tasksByProject;
+        int count = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            if (buckets.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
     }
 
-    public Map<Project, List<Task>> findAllTasksGroupedByProject() {
-        return tasks.stream()
-                .collect(Collectors.groupingBy(Task::getProject));
+    private TaskBucket dueDateBucket(LocalDate dueDate) {
+        return tasksByDueDate.computeIfAbsent(dueDate == null ? NO_DEADLINE : dueDate, date -> new TaskBucket(storage::get));
     }
 }
@@ -0,0 +1,57 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * Primary storage of tasks by id, underneath the indexes kept by {@link TaskRepository}.
+ */
+public interface TaskStorage extends Closeable {
+
+    static TaskStorage onHeap() {
+        return new HeapTaskStorage();
+    }
+
+    /**
+     * Keeps tasks in primitive columns in a memory-mapped file under {@code directory} and their descriptions off-heap.
+     * The file only holds the live data set; durability is up to the write-ahead log.
+     */
+    static TaskStorage mapped(Path directory) throws IOException {
+        return MappedTaskStorage.create(directory);
+    }
+
+    /**
+     * Stores the task, replacing the one with the same id if there is one.
+     */
+    void put(Task task);
+
+    Task get(long id);
+
+    int size();
+
+    /**
+     * Writes the done flag of the task back to the storage.
+     */
+    void updateStatus(Task task);
+
+    /**
+     * Writes the due date of the task back to the storage.
+     */
+    void updateDueDate(Task task);
+
+    /**
+     * All tasks in the order they were first stored.
+     */
+    Collection<Task> findAll();
+
+    /**
+     * Whether {@link #get} returns the stored task itself, so changes to it are seen by everyone holding it, rather than
+     * a copy of the stored values.
+     */
+    boolean returnsLiveTasks();
+
+    @Override
+    default void close() throws IOException {}
+}
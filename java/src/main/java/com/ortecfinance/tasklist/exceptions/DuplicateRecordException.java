@@ -0,0 +1,7 @@
+package com.ortecfinance.tasklist.exceptions;
+
+public class DuplicateRecordException extends RuntimeException {
+    public DuplicateRecordException(String message) {
+        super(message);
+    }
+}
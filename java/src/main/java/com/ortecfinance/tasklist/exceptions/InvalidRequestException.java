@@ -0,0 +1,7 @@
+package com.ortecfinance.tasklist.exceptions;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
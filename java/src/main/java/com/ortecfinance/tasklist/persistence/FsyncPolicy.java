@@ -0,0 +1,10 @@
+package com.ortecfinance.tasklist.persistence;
+
+public enum FsyncPolicy {
+    /** Every write is forced to disk before it returns. Concurrent writers share a force when they overlap. */
+    ALWAYS,
+    /** Writes are forced in batches on a fixed interval; a write returns once the batch holding it is on disk. */
+    GROUP,
+    /** Writes are handed to the operating system, which decides when they reach the disk. */
+    OS
+}
@@ -0,0 +1,21 @@
+package com.ortecfinance.tasklist.persistence;
+
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+@Configuration
+@EnableConfigurationProperties(PersistenceProperties.class)
+@ConditionalOnProperty(prefix = "tasklist.persistence", name = "enabled", havingValue = "true")
+public class PersistenceConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public TaskListStore taskListStore(PersistenceProperties properties, ProjectRepository projectRepository, TaskRepository taskRepository) throws IOException {
+        return TaskListStore.open(properties, projectRepository, taskRepository);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ortecfinance.tasklist.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties("tasklist.persistence")
+public record PersistenceProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data") Path directory,
+        @DefaultValue("group") FsyncPolicy fsync,
+        @DefaultValue("5ms") Duration groupCommitInterval,
+        @DefaultValue("10m") Duration snapshotInterval,
+        @DefaultValue("64MB") DataSize snapshotLogSize
+) {
+}
@@ -0,0 +1,225 @@
+package com.ortecfinance.tasklist.persistence;
+
+import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import com.ortecfinance.tasklist.domain.task.Task;
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Point-in-time image of both repositories. Projects are stored first with their ids, followed by tasks in blocks of
+ * up to {@value #BLOCK_SIZE} rows, each block laid out column by column: ids, project ordinals, due dates as epoch days,
+ * done flags as a bit set and finally the descriptions. The file ends with a CRC32C of everything before it.
+ */
+final class Snapshot {
+    private static final int MAGIC = 0x544C5332; //"TLS2"
+    private static final int MAGIC_WITHOUT_PROJECT_IDS = 0x544C5331; //"TLS1", projects numbered 1, 2, ... in order
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int NO_PROJECT = -1;
+    private static final long NO_DUE_DATE = Long.MIN_VALUE;
+
+    private Snapshot() {}
+
+    /**
+     * Writes the current state to {@code file} through a temporary file, so a crash never leaves a partial snapshot.
+     * Writers are not blocked; tasks whose project was created after the project list was read are left out, since
+     * the log segments after the snapshot hold both the project and the task.
+     */
+    static void write(Path file, ProjectRepository projectRepository, TaskRepository taskRepository) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), crc));
+
+            out.writeInt(MAGIC);
+            int[] projectOrdinals = writeProjects(out, projectRepository);
+            writeTasks(out, taskRepository, projectOrdinals);
+            out.writeInt(0);
+            out.flush();
+
+            new DataOutputStream(Channels.newOutputStream(channel)).writeInt((int) crc.getValue());
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static void load(Path file, ProjectRepository projectRepository, TaskRepository taskRepository) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            CRC32C crc = new CRC32C();
+            InputStream buffered = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+            DataInputStream in = new DataInputStream(new CheckedInputStream(buffered, crc));
+
+            int magic = in.readInt();
+            if (magic != MAGIC && magic != MAGIC_WITHOUT_PROJECT_IDS) {
+                throw new IOException(file + " is not a task list snapshot.");
+            }
+            List<Project> projects = readProjects(in, projectRepository, magic == MAGIC);
+            readTasks(in, taskRepository, projects);
+
+            int expected = (int) crc.getValue();
+            if (new DataInputStream(buffered).readInt() != expected) {
+                throw new IOException(file + " is corrupt, its checksum does not match.");
+            }
+        }
+    }
+
+    /**
+     * Writes the projects with their ids, which need not be consecutive, and returns the ordinal of each by id.
+     */
+    private static int[] writeProjects(DataOutputStream out, ProjectRepository projectRepository) throws IOException {
+        List<Project> projects = projectRepository.findAll();
+        int[] ordinals = new int[projects.isEmpty() ? 1 : projects.getLast().getId() + 1];
+        Arrays.fill(ordinals, NO_PROJECT);
+        out.writeInt(projects.size());
+        for (int ordinal = 0; ordinal < projects.size(); ordinal++) {
+            Project project = projects.get(ordinal);
+            out.writeInt(project.getId());
+            writeString(out, project.getName());
+            ordinals[project.getId()] = ordinal;
+        }
+        return ordinals;
+    }
+
+    private static void writeTasks(DataOutputStream out, TaskRepository taskRepository, int[] ordinalsById) throws IOException {
+        Task[] block = new Task[BLOCK_SIZE];
+        int[] projectOrdinals = new int[BLOCK_SIZE];
+        Iterator<Task> tasks = taskRepository.findAll().iterator();
+
+        while (tasks.hasNext()) {
+            int rows = 0;
+            while (rows < BLOCK_SIZE && tasks.hasNext()) {
+                Task task = tasks.next();
+                int projectId = task.getProjectId();
+                if (projectId == Project.NO_ID || projectId < ordinalsById.length && ordinalsById[projectId] != NO_PROJECT) {
+                    block[rows] = task;
+                    projectOrdinals[rows] = projectId == Project.NO_ID ? NO_PROJECT : ordinalsById[projectId];
+                    rows++;
+                }
+            }
+            if (rows > 0) {
+                writeBlock(out, block, projectOrdinals, rows);
+            }
+        }
+    }
+
+    private static void writeBlock(DataOutputStream out, Task[] block, int[] projectOrdinals, int rows) throws IOException {
+        //done and due date are read once per task, so the values written together come from the same moment
+        long[] dueDates = new long[rows];
+        byte[] doneBits = new byte[(rows + 7) / 8];
+        for (int row = 0; row < rows; row++) {
+            LocalDate dueDate = block[row].getDueDate();
+            dueDates[row] = dueDate == null ? NO_DUE_DATE : dueDate.toEpochDay();
+            if (block[row].isDone()) {
+                doneBits[row >>> 3] |= (byte) (1 << (row & 7));
+            }
+        }
+
+        out.writeInt(rows);
+        for (int row = 0; row < rows; row++) {
+            out.writeLong(block[row].getId());
+        }
+        for (int row = 0; row < rows; row++) {
+            out.writeInt(projectOrdinals[row]);
+        }
+        for (long dueDate : dueDates) {
+            out.writeLong(dueDate);
+        }
+        out.write(doneBits);
+        for (int row = 0; row < rows; row++) {
+            writeString(out, block[row].getDescription());
+        }
+    }
+
+    private static List<Project> readProjects(DataInputStream in, ProjectRepository projectRepository, boolean withIds) throws IOException {
+        int count = in.readInt();
+        List<Project> projects = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            projects.add(withIds ? projectRepository.create(in.readInt(), readString(in)) : projectRepository.create(readString(in)));
+        }
+        return projects;
+    }
+
+    private static void readTasks(DataInputStream in, TaskRepository taskRepository, List<Project> projects) throws IOException {
+        long[] ids = new long[0];
+        int[] projectOrdinals = new int[0];
+        long[] dueDates = new long[0];
+
+        for (int rows = in.readInt(); rows > 0; rows = in.readInt()) {
+            if (rows > BLOCK_SIZE) {
+                throw new IOException("Snapshot block of " + rows + " rows exceeds the maximum of " + BLOCK_SIZE + ".");
+            }
+            if (ids.length < rows) {
+                ids = new long[rows];
+                projectOrdinals = new int[rows];
+                dueDates = new long[rows];
+            }
+
+            for (int row = 0; row < rows; row++) {
+                ids[row] = in.readLong();
+            }
+            for (int row = 0; row < rows; row++) {
+                projectOrdinals[row] = in.readInt();
+            }
+            for (int row = 0; row < rows; row++) {
+                dueDates[row] = in.readLong();
+            }
+            byte[] doneBits = new byte[(rows + 7) / 8];
+            in.readFully(doneBits);
+
+            for (int row = 0; row < rows; row++) {
+                int projectId = projectOrdinals[row] == NO_PROJECT ? Project.NO_ID : projects.get(projectOrdinals[row]).getId();
+                boolean done = (doneBits[row >>> 3] & (1 << (row & 7))) != 0;
+                LocalDate dueDate = dueDates[row] == NO_DUE_DATE ? null : LocalDate.ofEpochDay(dueDates[row]);
+                taskRepository.save(new Task(ids[row], projectId, readString(in), done, dueDate));
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
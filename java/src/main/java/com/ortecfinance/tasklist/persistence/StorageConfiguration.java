@@ -0,0 +1,21 @@
+package com.ortecfinance.tasklist.persistence;
+
+import com.ortecfinance.tasklist.domain.task.TaskStorage;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+@Configuration
+@EnableConfigurationProperties(StorageProperties.class)
+public class StorageConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public TaskStorage taskStorage(StorageProperties properties) throws IOException {
+        return switch (properties.mode()) {
+            case HEAP -> TaskStorage.onHeap();
+            case MAPPED -> TaskStorage.mapped(properties.directory());
+        };
+    }
+}
@@ -0,0 +1,6 @@
+package com.ortecfinance.tasklist.persistence;
+
+public enum StorageMode {
+    HEAP,
+    MAPPED
+}
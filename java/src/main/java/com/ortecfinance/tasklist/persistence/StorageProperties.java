@@ -0,0 +1,13 @@
+package com.ortecfinance.tasklist.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties("tasklist.storage")
+public record StorageProperties(
+        @DefaultValue("heap") StorageMode mode,
+        @DefaultValue("data") Path directory
+) {
+}
@@ -0,0 +1,142 @@
+package com.ortecfinance.tasklist.persistence;
+
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the repositories durable: restores them from the latest snapshot plus the log written after it, journals every
+ * change to a {@link WriteAheadLog} and periodically replaces the log with a fresh snapshot.
+ */
+public final class TaskListStore implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(TaskListStore.class);
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d{16})\\.bin");
+    private static final Duration MAX_CHECK_INTERVAL = Duration.ofSeconds(5);
+
+    private final Path directory;
+    private final WriteAheadLog log;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final PersistenceProperties properties;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final ScheduledExecutorService snapshotter;
+    private volatile long lastSnapshotNanos = System.nanoTime();
+
+    private TaskListStore(PersistenceProperties properties, WriteAheadLog log, ProjectRepository projectRepository, TaskRepository taskRepository) {
+        this.directory = properties.directory();
+        this.properties = properties;
+        this.log = log;
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+
+        snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkInterval = Math.min(properties.snapshotInterval().toMillis(), MAX_CHECK_INTERVAL.toMillis());
+        snapshotter.scheduleWithFixedDelay(this::snapshotIfDue, checkInterval, Math.max(1, checkInterval), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Loads the persisted state into the given, still empty, repositories and starts journaling their changes.
+     */
+    public static TaskListStore open(PersistenceProperties properties, ProjectRepository projectRepository, TaskRepository taskRepository) throws IOException {
+        Path directory = properties.directory();
+        Files.createDirectories(directory);
+
+        long fromSequence = 0;
+        List<Long> snapshots = snapshotSequences(directory);
+        if (!snapshots.isEmpty()) {
+            fromSequence = snapshots.get(snapshots.size() - 1);
+            Snapshot.load(snapshotFile(directory, fromSequence), projectRepository, taskRepository);
+            deleteObsoleteFiles(directory, fromSequence);
+        }
+        long nextSequence = WriteAheadLog.replay(directory, fromSequence, projectRepository, taskRepository);
+
+        WriteAheadLog log = WriteAheadLog.open(directory, nextSequence, properties.fsync(), properties.groupCommitInterval());
+        projectRepository.setJournal(log);
+        taskRepository.setJournal(log);
+        return new TaskListStore(properties, log, projectRepository, taskRepository);
+    }
+
+    /**
+     * Writes a snapshot of the current state and drops the log segments it covers. Writers keep going meanwhile;
+     * their changes end up in the new log segment and are replayed on top of the snapshot.
+     */
+    public void snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            long sequence = log.rotate();
+            Snapshot.write(snapshotFile(directory, sequence), projectRepository, taskRepository);
+            deleteObsoleteFiles(directory, sequence);
+            lastSnapshotNanos = System.nanoTime();
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    private void snapshotIfDue() {
+        long logSize = log.sizeSinceRotation();
+        boolean logTooLarge = logSize >= properties.snapshotLogSize().toBytes();
+        boolean intervalPassed = System.nanoTime() - lastSnapshotNanos >= properties.snapshotInterval().toNanos();
+        if (logTooLarge || (intervalPassed && logSize > 0)) {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException exception) {
+                //the covered log segments are only dropped after a successful snapshot, so nothing is lost; retried on the next check
+                logger.warn("Could not write a snapshot to {}", directory, exception);
+            }
+        }
+    }
+
+    private static void deleteObsoleteFiles(Path directory, long sequence) throws IOException {
+        WriteAheadLog.deleteSegmentsBefore(directory, sequence);
+        for (long existing : snapshotSequences(directory)) {
+            if (existing < sequence) {
+                Files.deleteIfExists(snapshotFile(directory, existing));
+            }
+        }
+    }
+
+    private static List<Long> snapshotSequences(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .map(file -> SNAPSHOT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static Path snapshotFile(Path directory, long sequence) {
+        return directory.resolve(String.format("snapshot-%016d.bin", sequence));
+    }
+}
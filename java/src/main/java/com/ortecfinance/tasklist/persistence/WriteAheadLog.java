@@ -0,0 +1,497 @@
+package com.ortecfinance.tasklist.persistence;
+
+import com.ortecfinance.tasklist.domain.ChangeJournal;
+import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import com.ortecfinance.tasklist.domain.task.Task;
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only binary log of all repository changes, split into numbered segment files. Each record is framed as
+ * {@code [payload length][CRC32C of payload][payload]}; a torn or corrupt record at the end of a segment, left behind
+ * by a crash mid-write, is dropped on {@link #replay}.
+ */
+public final class WriteAheadLog implements ChangeJournal, Closeable {
+    private static final Pattern SEGMENT_NAME = Pattern.compile("wal-(\\d{16})\\.log");
+    private static final int MAGIC = 0x544C5731; //"TLW1"
+    private static final int HEADER_SIZE = Integer.BYTES;
+    private static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MAX_PAYLOAD_SIZE = 16 * 1024 * 1024;
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+    private static final byte PROJECT_CREATED = 1; //without its id, only replayed from older logs written in id order
+    private static final byte TASK_STATUS_CHANGED = 3; //type 2, a task referring to its project by name, is retired
+    private static final byte TASK_DUE_DATE_CHANGED = 4;
+    private static final byte TASK_ADDED = 5;
+    private static final byte PROJECT_ADDED = 6;
+    private static final long NO_DUE_DATE = Long.MIN_VALUE;
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private final ScheduledExecutorService groupCommitter;
+
+    private Segment segment; //replaced under both locks, so holding either one gives a stable view
+    private volatile long writtenPosition; //bytes appended since the log was opened, across all segments
+    private volatile long durablePosition;
+    private volatile long rotatedPosition;
+    private volatile IOException failure;
+    private boolean closed; //guarded by syncLock
+
+    private WriteAheadLog(Path directory, Segment segment, FsyncPolicy fsyncPolicy, Duration groupCommitInterval) {
+        this.directory = directory;
+        this.segment = segment;
+        this.fsyncPolicy = fsyncPolicy;
+
+        if (fsyncPolicy == FsyncPolicy.GROUP) {
+            groupCommitter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-group-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(1, groupCommitInterval.toNanos());
+            groupCommitter.scheduleWithFixedDelay(this::groupCommit, interval, interval, TimeUnit.NANOSECONDS);
+        } else {
+            groupCommitter = null;
+        }
+    }
+
+    /**
+     * Starts a new log whose first segment has the given sequence number, which must be higher than that of every
+     * existing segment.
+     */
+    public static WriteAheadLog open(Path directory, long sequence, FsyncPolicy fsyncPolicy, Duration groupCommitInterval) throws IOException {
+        return new WriteAheadLog(directory, Segment.create(directory, sequence), fsyncPolicy, groupCommitInterval);
+    }
+
+    /**
+     * Applies every intact record of the segments numbered {@code fromSequence} and up to the repositories, truncating
+     * whatever follows the last intact record of a segment. Records that are already reflected in the repositories, as
+     * happens after loading a snapshot, are applied again without harm.
+     *
+     * @return the sequence number for the next segment
+     */
+    public static long replay(Path directory, long fromSequence, ProjectRepository projectRepository, TaskRepository taskRepository) throws IOException {
+        long nextSequence = fromSequence;
+        for (long sequence : segmentSequences(directory)) {
+            if (sequence >= fromSequence) {
+                replaySegment(segmentFile(directory, sequence), projectRepository, taskRepository);
+                nextSequence = sequence + 1;
+            }
+        }
+        return nextSequence;
+    }
+
+    public static void deleteSegmentsBefore(Path directory, long sequence) throws IOException {
+        for (long existing : segmentSequences(directory)) {
+            if (existing < sequence) {
+                Files.deleteIfExists(segmentFile(directory, existing));
+            }
+        }
+    }
+
+    /**
+     * Continues the log in a new segment. Returns its sequence number once every change logged to the older segments
+     * has been applied to the repositories, so a snapshot taken afterwards covers all of them.
+     */
+    public long rotate() throws IOException {
+        Segment previous;
+        long sequence;
+        appendLock.lock();
+        syncLock.lock();
+        try {
+            checkHealthy();
+            previous = segment;
+            sequence = previous.sequence() + 1;
+            Segment next = Segment.create(directory, sequence);
+            try {
+                previous.channel().force(false);
+            } catch (IOException exception) {
+                next.channel().close();
+                Files.deleteIfExists(segmentFile(directory, sequence));
+                throw exception;
+            }
+            durablePosition = writtenPosition;
+            synced.signalAll();
+            segment = next;
+            rotatedPosition = writtenPosition;
+        } finally {
+            syncLock.unlock();
+            appendLock.unlock();
+        }
+
+        previous.channel().close();
+        while (previous.pending().get() > 0) {
+            LockSupport.parkNanos(100_000);
+        }
+        return sequence;
+    }
+
+    /**
+     * Bytes appended since the last rotation.
+     */
+    public long sizeSinceRotation() {
+        return writtenPosition - rotatedPosition;
+    }
+
+    @Override
+    public Entry projectCreated(Project project) {
+        byte[] name = encode(project.getName());
+        ByteBuffer frame = frame(1 + Integer.BYTES + sizeOf(name))
+                .put(PROJECT_ADDED)
+                .putInt(project.getId()); //projects are created concurrently, so log order need not be id order
+        putString(frame, name);
+        return append(frame);
+    }
+
+    @Override
+    public Entry taskCreated(Task task) {
+        return append(taskCreatedFrame(task));
+    }
+
+    /**
+     * Appends one record per task in a single write and waits for all of them to be durable at once.
+     */
+    @Override
+    public Entry tasksCreated(Collection<Task> tasks) {
+        return tasks.isEmpty() ? APPLIED : append(tasks.stream().map(WriteAheadLog::taskCreatedFrame).toArray(ByteBuffer[]::new));
+    }
+
+    @Override
+    public Entry taskStatusChanged(Task task, boolean done) {
+        return append(frame(1 + Long.BYTES + 1)
+                .put(TASK_STATUS_CHANGED)
+                .putLong(task.getId())
+                .put((byte) (done ? 1 : 0)));
+    }
+
+    @Override
+    public Entry taskDueDateChanged(Task task, LocalDate dueDate) {
+        return append(frame(1 + 2 * Long.BYTES)
+                .put(TASK_DUE_DATE_CHANGED)
+                .putLong(task.getId())
+                .putLong(dueDate == null ? NO_DUE_DATE : dueDate.toEpochDay()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (groupCommitter != null) {
+            groupCommitter.shutdown();
+        }
+
+        appendLock.lock();
+        syncLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (failure == null && durablePosition < writtenPosition) {
+                sync();
+            }
+            closed = true;
+            synced.signalAll();
+        } finally {
+            syncLock.unlock();
+            appendLock.unlock();
+            segment.channel().close();
+        }
+    }
+
+    private Entry append(ByteBuffer... frames) {
+        CRC32C crc = new CRC32C();
+        long size = 0;
+        for (ByteBuffer frame : frames) {
+            int length = frame.position() - FRAME_HEADER_SIZE;
+            crc.reset();
+            crc.update(frame.array(), FRAME_HEADER_SIZE, length);
+            frame.putInt(0, length)
+                    .putInt(Integer.BYTES, (int) crc.getValue())
+                    .flip();
+            size += frame.limit();
+        }
+
+        Segment target;
+        long end;
+        appendLock.lock();
+        try {
+            checkHealthy();
+            target = segment;
+            ByteBuffer last = frames[frames.length - 1];
+            while (last.hasRemaining()) { //frames are written in order, so the last one is done when all are
+                target.channel().write(frames);
+            }
+            end = writtenPosition + size;
+            writtenPosition = end;
+            target.pending().incrementAndGet();
+        } catch (IOException exception) {
+            failure = exception; //a partially written frame would hide every record after it on replay
+            throw new UncheckedIOException("Could not append to the write-ahead log.", exception);
+        } finally {
+            appendLock.unlock();
+        }
+
+        try {
+            switch (fsyncPolicy) {
+                case ALWAYS -> syncTo(end);
+                case GROUP -> awaitGroupCommit(end);
+                case OS -> {}
+            }
+        } catch (RuntimeException exception) {
+            target.pending().decrementAndGet();
+            throw exception;
+        }
+        return target.pending()::decrementAndGet;
+    }
+
+    private void syncTo(long end) {
+        syncLock.lock();
+        try {
+            if (durablePosition < end) {
+                checkHealthy();
+                sync();
+            }
+        } catch (IOException exception) {
+            failure = exception;
+            throw new UncheckedIOException("Could not force the write-ahead log to disk.", exception);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void awaitGroupCommit(long end) {
+        syncLock.lock();
+        try {
+            while (durablePosition < end) {
+                checkHealthy();
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void groupCommit() {
+        syncLock.lock();
+        try {
+            if (failure == null && !closed && durablePosition < writtenPosition) {
+                sync();
+            }
+        } catch (IOException exception) {
+            failure = exception;
+            synced.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void sync() throws IOException { //requires syncLock
+        long target = writtenPosition; //everything appended so far is in the current segment or was forced on rotation
+        segment.channel().force(false);
+        durablePosition = target;
+        synced.signalAll();
+    }
+
+    private void checkHealthy() {
+        if (failure != null) {
+            throw new UncheckedIOException("The write-ahead log failed earlier and no longer accepts writes.", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("The write-ahead log is closed.");
+        }
+    }
+
+    private static void replaySegment(Path file, ProjectRepository projectRepository, TaskRepository taskRepository) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ, WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (channel.read(header, 0) != HEADER_SIZE || header.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a task list write-ahead log segment.");
+            }
+
+            long position = HEADER_SIZE;
+            channel.position(position);
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE).flip();
+            CRC32C crc = new CRC32C();
+
+            while ((buffer = fill(channel, buffer, FRAME_HEADER_SIZE)) != null) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > MAX_PAYLOAD_SIZE || (buffer = fill(channel, buffer, length)) == null) {
+                    break;
+                }
+
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                apply(payload, projectRepository, taskRepository);
+                buffer.position(buffer.position() + length);
+                position += FRAME_HEADER_SIZE + length;
+            }
+
+            channel.truncate(position);
+        }
+    }
+
+    private static ByteBuffer fill(FileChannel channel, ByteBuffer buffer, int required) throws IOException {
+        if (buffer.remaining() >= required) {
+            return buffer;
+        }
+        if (buffer.capacity() < required) {
+            buffer = ByteBuffer.allocate(required).put(buffer).flip();
+        }
+
+        buffer.compact();
+        while (buffer.position() < required) {
+            if (channel.read(buffer) < 0) {
+                return null;
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void apply(ByteBuffer payload, ProjectRepository projectRepository, TaskRepository taskRepository) throws IOException {
+        byte type = payload.get();
+        switch (type) {
+            case PROJECT_CREATED -> {
+                String name = getString(payload);
+                if (projectRepository.findByName(name).isEmpty()) {
+                    projectRepository.create(name); //created in the same order, so with the same id as before
+                }
+            }
+            case PROJECT_ADDED -> {
+                int id = payload.getInt();
+                String name = getString(payload);
+                if (projectRepository.findById(id).isEmpty()) {
+                    projectRepository.create(id, name);
+                }
+            }
+            case TASK_ADDED -> {
+                long id = payload.getLong();
+                int projectId = payload.getInt();
+                String description = getString(payload);
+                if (taskRepository.findById(id).isEmpty()) {
+                    if (projectId != Project.NO_ID && projectRepository.findById(projectId).isEmpty()) {
+                        throw new IOException("Task " + id + " refers to unknown project " + projectId + ".");
+                    }
+                    taskRepository.save(new Task(id, projectId, description));
+                }
+            }
+            case TASK_STATUS_CHANGED -> {
+                long id = payload.getLong();
+                boolean done = payload.get() != 0;
+                taskRepository.findById(id).ifPresent(task -> taskRepository.changeStatus(task, done));
+            }
+            case TASK_DUE_DATE_CHANGED -> {
+                long id = payload.getLong();
+                long epochDay = payload.getLong();
+                LocalDate dueDate = epochDay == NO_DUE_DATE ? null : LocalDate.ofEpochDay(epochDay);
+                taskRepository.findById(id).ifPresent(task -> taskRepository.changeDueDate(task, dueDate));
+            }
+            default -> throw new IOException("Unknown write-ahead log record type " + type + ".");
+        }
+    }
+
+    private static ByteBuffer taskCreatedFrame(Task task) {
+        byte[] description = encode(task.getDescription());
+        ByteBuffer frame = frame(1 + Long.BYTES + Integer.BYTES + sizeOf(description))
+                .put(TASK_ADDED)
+                .putLong(task.getId())
+                .putInt(task.getProjectId());
+        putString(frame, description);
+        return frame;
+    }
+
+    private static List<Long> segmentSequences(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static Path segmentFile(Path directory, long sequence) {
+        return directory.resolve(String.format("wal-%016d.log", sequence));
+    }
+
+    private static ByteBuffer frame(int payloadSize) {
+        return ByteBuffer.allocate(FRAME_HEADER_SIZE + payloadSize).position(FRAME_HEADER_SIZE);
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sizeOf(byte[] value) {
+        return Integer.BYTES + (value == null ? 0 : value.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * One segment file; {@code pending} counts the changes logged to it that have not been applied yet.
+     */
+    private record Segment(long sequence, FileChannel channel, AtomicInteger pending) {
+        static Segment create(Path directory, long sequence) throws IOException {
+            FileChannel channel = FileChannel.open(segmentFile(directory, sequence), CREATE_NEW, WRITE);
+            try {
+                channel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).flip());
+                channel.force(true);
+                return new Segment(sequence, channel, new AtomicInteger());
+            } catch (IOException exception) {
+                channel.close();
+                throw exception;
+            }
+        }
+    }
+}
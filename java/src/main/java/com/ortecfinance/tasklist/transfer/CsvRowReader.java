@@ -0,0 +1,151 @@
+package com.ortecfinance.tasklist.transfer;
+
+import com.ortecfinance.tasklist.exceptions.InvalidRequestException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads the CSV written by {@link CsvRowWriter}. Parses straight from its own character buffer, so the only objects
+ * created per row are the field values themselves.
+ */
+final class CsvRowReader implements RowReader {
+    private static final int FIELDS = 5;
+
+    private final Reader in;
+    private final char[] buffer = new char[64 * 1024];
+    private final StringBuilder field = new StringBuilder();
+    private final String[] fields = new String[FIELDS];
+    private final boolean[] quoted = new boolean[FIELDS];
+    private int position;
+    private int limit;
+    private long records;
+
+    CsvRowReader(Reader in) throws IOException {
+        this.in = in;
+        if (readRecord() != FIELDS || !String.join(",", fields).equals(CsvRowWriter.HEADER)) {
+            throw new InvalidRequestException("The CSV must start with the header \"" + CsvRowWriter.HEADER + "\".");
+        }
+    }
+
+    @Override
+    public TransferRow read() throws IOException {
+        int count;
+        do {
+            count = readRecord();
+            if (count < 0) {
+                return null;
+            }
+        } while (count == 1 && fields[0].isEmpty() && !quoted[0]); //blank line
+
+        if (count != FIELDS) {
+            throw invalid("expected " + FIELDS + " fields but found " + count);
+        }
+        if (fields[2].isEmpty() && !quoted[2]) {
+            return new TransferRow(fields[0], null, null, false, null);
+        }
+
+        try {
+            Long id = fields[1].isEmpty() ? null : Long.valueOf(fields[1]);
+            LocalDate dueDate = fields[4].isEmpty() ? null : TransferRow.parseDueDate(fields[4]);
+            return new TransferRow(fields[0], id, fields[2], parseDone(fields[3]), dueDate);
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw invalid(exception.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads the fields of the next record into {@link #fields} and returns how many there were, or -1 at the end.
+     */
+    private int readRecord() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+
+        records++;
+        int count = 0;
+        while (true) {
+            boolean inQuotes = false;
+            boolean wasQuoted = false;
+            field.setLength(0);
+            int c;
+            while ((c = next()) >= 0) {
+                if (inQuotes) {
+                    if (c != '"') {
+                        field.append((char) c);
+                    } else if (peek() == '"') {
+                        field.append('"');
+                        position++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    inQuotes = true;
+                    wasQuoted = true;
+                } else if (c == ',' || c == '\n' || c == '\r') {
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+            }
+            if (inQuotes) {
+                throw invalid("unterminated quoted field");
+            }
+
+            if (count < FIELDS) {
+                fields[count] = field.toString();
+                quoted[count] = wasQuoted;
+            }
+            count++;
+            if (c != ',') {
+                if (c == '\r' && peek() == '\n') {
+                    position++;
+                }
+                return count;
+            }
+        }
+    }
+
+    private int next() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private boolean parseDone(String value) {
+        return switch (value) {
+            case "true" -> true;
+            case "false", "" -> false;
+            default -> throw invalid("done must be true or false");
+        };
+    }
+
+    private InvalidRequestException invalid(String reason) {
+        return new InvalidRequestException("Invalid CSV in record " + records + ": " + reason + ".");
+    }
+}
@@ -0,0 +1,75 @@
+package com.ortecfinance.tasklist.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes rows as RFC 4180 CSV with the header {@value #HEADER}. Due dates are ISO dates, fields are quoted only when
+ * they contain a separator, quote or line break.
+ */
+final class CsvRowWriter implements RowWriter {
+    static final String HEADER = "project,id,description,done,due_date";
+
+    private final Writer out;
+
+    CsvRowWriter(Writer out) throws IOException {
+        this.out = out;
+        out.write(HEADER);
+        out.write('\n');
+    }
+
+    @Override
+    public void write(TransferRow row) throws IOException {
+        writeField(row.project());
+        out.write(',');
+        if (!row.isProjectOnly()) {
+            out.write(Long.toString(row.id()));
+            out.write(',');
+            writeField(row.description());
+            out.write(',');
+            out.write(row.done() ? "true" : "false");
+            out.write(',');
+            if (row.dueDate() != null) {
+                out.write(row.dueDate().toString());
+            }
+        } else {
+            out.write(",,,");
+        }
+        out.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        //an empty description is quoted, so it can be told apart from a row without a task
+        if (value.isEmpty()) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
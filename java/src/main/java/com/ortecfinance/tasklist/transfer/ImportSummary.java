@@ -0,0 +1,7 @@
+package com.ortecfinance.tasklist.transfer;
+
+public record ImportSummary(
+        long projectsCreated,
+        long tasksCreated
+) {
+}
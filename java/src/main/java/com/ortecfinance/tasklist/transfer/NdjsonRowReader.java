@@ -0,0 +1,76 @@
+package com.ortecfinance.tasklist.transfer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.ortecfinance.tasklist.exceptions.InvalidRequestException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads the lines written by {@link NdjsonRowWriter} with a streaming parser. Unknown fields are skipped.
+ */
+final class NdjsonRowReader implements RowReader {
+    private final JsonParser parser;
+
+    NdjsonRowReader(JsonFactory factory, Reader in) throws IOException {
+        this.parser = factory.createParser(in);
+    }
+
+    @Override
+    public TransferRow read() throws IOException {
+        try {
+            return readObject();
+        } catch (JsonProcessingException exception) {
+            throw invalid(exception.getOriginalMessage());
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw invalid(exception.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private TransferRow readObject() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw invalid("expected an object");
+        }
+
+        String project = null;
+        Long id = null;
+        String description = null;
+        boolean done = false;
+        LocalDate dueDate = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "project" -> project = parser.getValueAsString();
+                case "id" -> id = value == JsonToken.VALUE_NULL ? null : parser.getLongValue();
+                case "description" -> description = parser.getValueAsString();
+                case "done" -> done = parser.getBooleanValue();
+                case "dueDate" -> dueDate = value == JsonToken.VALUE_NULL ? null : TransferRow.parseDueDate(parser.getText());
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (project == null) {
+            throw invalid("the project is missing");
+        }
+        return new TransferRow(project, id, description, done, dueDate);
+    }
+
+    private InvalidRequestException invalid(String reason) {
+        return new InvalidRequestException("Invalid NDJSON on line " + parser.currentLocation().getLineNr() + ": " + reason + ".");
+    }
+}
@@ -0,0 +1,41 @@
+package com.ortecfinance.tasklist.transfer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes one JSON object per line: {@code {"project":…}} for a project without tasks and
+ * {@code {"project":…,"id":…,"description":…,"done":…,"dueDate":…}} for a task.
+ */
+final class NdjsonRowWriter implements RowWriter {
+    private final JsonGenerator generator;
+
+    NdjsonRowWriter(JsonFactory factory, Writer out) throws IOException {
+        this.generator = factory.createGenerator(out);
+        generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(TransferRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("project", row.project());
+        if (!row.isProjectOnly()) {
+            generator.writeNumberField("id", row.id());
+            generator.writeStringField("description", row.description());
+            generator.writeBooleanField("done", row.done());
+            if (row.dueDate() != null) {
+                generator.writeStringField("dueDate", row.dueDate().toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,12 @@
+package com.ortecfinance.tasklist.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+interface RowReader extends Closeable {
+
+    /**
+     * The next row, or {@code null} at the end of the input.
+     */
+    TransferRow read() throws IOException;
+}
@@ -0,0 +1,9 @@
+package com.ortecfinance.tasklist.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+interface RowWriter extends Closeable {
+
+    void write(TransferRow row) throws IOException;
+}
@@ -0,0 +1,131 @@
+package com.ortecfinance.tasklist.transfer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.ortecfinance.tasklist.application.ChangeFeed;
+import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import com.ortecfinance.tasklist.domain.task.Task;
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves the whole task list in and out as CSV or NDJSON. Both directions stream through fixed-size buffers, so memory
+ * use does not grow with the size of the task list.
+ */
+@Service
+public class TaskListTransfer {
+    static final int BATCH_SIZE = 10_000;
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final ChangeFeed changeFeed;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public TaskListTransfer(TaskRepository taskRepository, ProjectRepository projectRepository) {
+        this(taskRepository, projectRepository, new ChangeFeed());
+    }
+
+    @Autowired
+    public TaskListTransfer(TaskRepository taskRepository, ProjectRepository projectRepository, ChangeFeed changeFeed) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Writes every project in creation order, each followed by its tasks in id order. Projects without tasks get a row
+     * of their own.
+     */
+    public void exportTo(WritableByteChannel channel, TransferFormat format) throws IOException {
+        Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try (RowWriter writer = format == TransferFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(jsonFactory, out)) {
+            for (Project project : projectRepository.findAll()) {
+                Iterator<Task> tasks = taskRepository.streamAllByProject(project, Long.MIN_VALUE).iterator();
+                if (!tasks.hasNext()) {
+                    writer.write(new TransferRow(project.getName(), null, null, false, null));
+                }
+                while (tasks.hasNext()) {
+                    Task task = tasks.next();
+                    writer.write(new TransferRow(project.getName(), task.getId(), task.getDescription(), task.isDone(), task.getDueDate()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the projects and tasks read from {@code channel}, creating projects that do not exist yet. Tasks keep their
+     * id unless it is missing or already taken, also when it is taken by a task created while the import runs. Tasks
+     * are saved in batches of {@value #BATCH_SIZE}, so a malformed row leaves the rows before it imported. With
+     * persistence on, each batch waits for the write-ahead log only once. Rather than an event per row, the change feed
+     * gets a {@link com.ortecfinance.tasklist.application.ChangeEvent.Type#RESET} after every batch.
+     */
+    public ImportSummary importFrom(ReadableByteChannel channel, TransferFormat format) throws IOException {
+        Reader in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+        Map<String, Project> projects = new HashMap<>();
+        List<Task> batch = new ArrayList<>(BATCH_SIZE);
+        long projectsCreated = 0;
+        long tasksCreated = 0;
+
+        try (RowReader reader = format == TransferFormat.CSV ? new CsvRowReader(in) : new NdjsonRowReader(jsonFactory, in)) {
+            for (TransferRow row = reader.read(); row != null; row = reader.read()) {
+                Project project = projects.get(row.project());
+                if (project == null) {
+                    project = projectRepository.findByName(row.project()).orElse(null);
+                    if (project == null) {
+                        project = projectRepository.create(row.project());
+                        projectsCreated++;
+                    }
+                    projects.put(row.project(), project);
+                }
+                if (row.isProjectOnly()) {
+                    continue;
+                }
+
+                long id;
+                if (row.id() != null && taskRepository.findById(row.id()).isEmpty()) {
+                    id = row.id();
+                    taskRepository.reserveId(id); //a clash with another kept id is resolved when the batch is saved
+                } else {
+                    id = taskRepository.nextId();
+                }
+                batch.add(new Task(id, project.getId(), row.description(), row.done(), row.dueDate()));
+                if (batch.size() == BATCH_SIZE) {
+                    tasksCreated += flush(batch);
+                    changeFeed.reset();
+                }
+            }
+        } finally {
+            tasksCreated += flush(batch);
+            if (projectsCreated > 0 || tasksCreated > 0) {
+                changeFeed.reset();
+            }
+        }
+        return new ImportSummary(projectsCreated, tasksCreated);
+    }
+
+    private int flush(List<Task> batch) {
+        int size = batch.size();
+        if (size > 0) {
+            taskRepository.saveAll(batch);
+            batch.clear();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ortecfinance.tasklist.transfer;
+
+public enum TransferFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    TransferFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+}
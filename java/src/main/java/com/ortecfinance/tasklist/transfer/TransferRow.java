@@ -0,0 +1,39 @@
+package com.ortecfinance.tasklist.transfer;
+
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * One line of an import or export: a task, or only a project when {@code description} is {@code null}. A {@code null}
+ * id lets the importer assign one, any other must be between 1 and {@link TaskRepository#MAX_ID}.
+ */
+record TransferRow(
+        String project,
+        Long id,
+        String description,
+        boolean done,
+        LocalDate dueDate
+) {
+    TransferRow {
+        if (id != null && (id < 1 || id > TaskRepository.MAX_ID)) {
+            throw new IllegalArgumentException("the id must be between 1 and " + TaskRepository.MAX_ID);
+        }
+    }
+
+    boolean isProjectOnly() {
+        return description == null;
+    }
+
+    /**
+     * Parses an ISO due date, rejecting one outside the range tasks can store as unparseable.
+     */
+    static LocalDate parseDueDate(String text) {
+        LocalDate dueDate = LocalDate.parse(text);
+        if (dueDate.isBefore(TaskRepository.MIN_DUE_DATE) || dueDate.isAfter(TaskRepository.MAX_DUE_DATE)) {
+            throw new DateTimeParseException("Text '" + text + "' is outside the range of due dates", text, 0);
+        }
+        return dueDate;
+    }
+}
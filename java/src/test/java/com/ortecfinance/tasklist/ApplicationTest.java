@@ -114,6 +114,21 @@ public final class ApplicationTest {
                 ""
         );
 
+        execute("show-due 01-11-2025 22-11-2025");
+        readLines(
+                "21-11-2025:",
+                "       4: SOLID",
+                "       7: Outside-In TDD",
+                ""
+        );
+
+        execute("show-due 01-11-2025 30-11-2025 open secrets");
+        readLines(
+                "25-11-2025:",
+                "       2: Destroy all humans.",
+                ""
+        );
+
         execute("quit");
     }
 
@@ -0,0 +1,78 @@
+package com.ortecfinance.tasklist.api.cli;
+
+import com.ortecfinance.tasklist.application.TaskListService;
+import com.ortecfinance.tasklist.domain.ChangeJournal;
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import com.ortecfinance.tasklist.domain.task.Task;
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class BatchRunnerTest {
+
+    private final TaskRepository taskRepository = new TaskRepository();
+    private final TaskListService service = new TaskListService(taskRepository, new ProjectRepository());
+
+    @Test
+    void groups_are_only_applied_when_all_their_commands_can_succeed() {
+        String output = run("""
+                add project secrets
+                add task secrets Eat more donuts.
+                begin
+                add project training
+                add task training SOLID
+                check 1
+                commit
+                begin
+                add task secrets Destroy all humans.
+                check 3
+                commit
+                add task nowhere Lost
+                """);
+
+        assertThat(taskRepository.findAll(), hasSize(2));
+        assertThat(taskRepository.findById(1).orElseThrow().isDone(), is(true));
+        assertThat(output, containsString("The group started at line 8 was not applied, line 10: could not find a task with an ID of 3."));
+        assertThat(output, containsString("Line 12: Could not find a project with the name \"nowhere\"."));
+        assertThat(output, containsString("3 failed. Groups: 1 committed, 0 partly applied, 1 rejected."));
+    }
+
+    @Test
+    void a_group_failing_while_it_is_applied_is_reported_as_partly_applied() {
+        taskRepository.setJournal(new ChangeJournal() {
+            @Override
+            public Entry taskStatusChanged(Task task, boolean done) {
+                throw new UncheckedIOException(new IOException("No space left on device"));
+            }
+        });
+
+        String output = run("""
+                add project secrets
+                add task secrets Eat more donuts.
+                begin
+                add task secrets Destroy all humans.
+                check 1
+                commit
+                """);
+
+        assertThat(taskRepository.findAll(), hasSize(2));
+        assertThat(output, containsString("Line 6: java.io.IOException: No space left on device"));
+        assertThat(output, containsString("The group started at line 3 was only partly applied."));
+        assertThat(output, containsString("1 failed. Groups: 0 committed, 1 partly applied, 0 rejected."));
+    }
+
+    private String run(String script) {
+        StringWriter output = new StringWriter();
+        new BatchRunner(service, new BufferedReader(new StringReader(script)), new PrintWriter(output)).run();
+        return output.toString();
+    }
+}
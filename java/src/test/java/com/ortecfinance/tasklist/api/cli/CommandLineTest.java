@@ -0,0 +1,26 @@
+package com.ortecfinance.tasklist.api.cli;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class CommandLineTest {
+
+    @Test
+    void words_numbers_and_the_rest_are_read_in_one_pass() {
+        CommandLine commandLine = new CommandLine("add  task secrets Eat more  donuts.");
+        assertThat(commandLine.next(), is("add"));
+        assertThat(commandLine.nextIs("tasks"), is(false));
+        assertThat(commandLine.nextIs("task"), is(true));
+        assertThat(commandLine.next(), is("secrets"));
+        assertThat(commandLine.rest(), is("Eat more  donuts."));
+        assertThat(commandLine.hasNext(), is(false));
+        assertThat(commandLine.next(), is(""));
+
+        CommandLine deadline = new CommandLine("deadline 42 21-11-2025");
+        deadline.next();
+        assertThat(deadline.nextLong(), is(42L));
+        assertThat(deadline.rest(), is("21-11-2025"));
+    }
+}
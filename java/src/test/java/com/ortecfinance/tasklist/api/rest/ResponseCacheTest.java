@@ -0,0 +1,104 @@
+package com.ortecfinance.tasklist.api.rest;
+
+import com.ortecfinance.tasklist.application.ViewVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ResponseCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ResponseCache cache = new ResponseCache(1000, registry);
+    private final AtomicInteger encodings = new AtomicInteger();
+
+    @Test
+    void bodies_are_encoded_once_per_version() throws IOException {
+        get("a", "1", 10);
+        get("a", "1", 10);
+        assertThat(encodings.get(), is(1));
+
+        get("a", "2", 20);
+        assertThat(encodings.get(), is(2));
+        assertThat(cache.entryCount(), is(1));
+        assertThat(registry.get("tasklist.response.cache.requests").tag("result", "hit").counter().count(), is(1.0));
+        assertThat(registry.get("tasklist.response.cache.requests").tag("result", "miss").counter().count(), is(2.0));
+    }
+
+    @Test
+    void least_recently_used_bodies_are_evicted_to_stay_within_the_budget() throws IOException {
+        get("a", "1", 300);
+        get("b", "1", 300);
+        get("a", "1", 300);
+        get("c", "1", 300);
+
+        assertThat(cache.bytes(), is(lessThanOrEqualTo(1000L)));
+        assertThat(cache.entryCount(), is(2));
+        assertThat(registry.get("tasklist.response.cache.evictions").counter().count(), is(1.0));
+
+        get("a", "1", 300);
+        get("b", "1", 300);
+        assertThat(encodings.get(), is(4)); //a was still cached, b was evicted
+
+        get("huge", "1", 2000);
+        assertThat(cache.entryCount(), is(2));
+    }
+
+    @Test
+    void concurrent_misses_on_a_version_share_one_encoding() throws Exception {
+        CountDownLatch encoding = new CountDownLatch(1);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<byte[]> first = executor.submit(() -> cache.get("a", version("1"), () -> {
+                encodings.incrementAndGet();
+                encoding.countDown();
+                release.join();
+                return new byte[10];
+            }));
+            encoding.await();
+            Future<byte[]> second = executor.submit(() -> get("a", "1", 10));
+            Future<byte[]> third = executor.submit(() -> get("a", "1", 10));
+            while (registry.get("tasklist.response.cache.requests").tag("result", "coalesced").counter().count() < 2) {
+                Thread.onSpinWait();
+            }
+            release.complete(null);
+
+            assertThat(second.get(5, TimeUnit.SECONDS), is(sameInstance(first.get(5, TimeUnit.SECONDS))));
+            assertThat(third.get(5, TimeUnit.SECONDS), is(sameInstance(first.get())));
+            assertThat(encodings.get(), is(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void an_older_version_does_not_replace_a_newer_body() throws IOException {
+        byte[] newer = get("a", "2", 10);
+        get("a", "1", 20);
+
+        assertThat(get("a", "2", 30), is(sameInstance(newer)));
+        assertThat(cache.bytes(), is(lessThan(84L))); //only the newer body of 10 bytes, not the older one of 20
+    }
+
+    private byte[] get(String view, String version, int size) throws IOException {
+        return cache.get(view, version(version), () -> {
+            encodings.incrementAndGet();
+            return new byte[size];
+        });
+    }
+
+    private static ViewVersion version(String version) {
+        return new ViewVersion(version, 0, Long.parseLong(version));
+    }
+}
@@ -0,0 +1,99 @@
+package com.ortecfinance.tasklist.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChangeFeedTest {
+
+    private final ChangeFeed feed = new ChangeFeed();
+
+    @Test
+    void resumes_after_the_last_event_seen_or_resets_when_it_is_gone() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            feed.projectCreated("project " + i);
+        }
+
+        ChangeFeed.Subscription resumed = feed.subscribe(feed.eventId(1));
+        assertThat(resumed.poll(0, TimeUnit.SECONDS).project(), is("project 1"));
+        assertThat(resumed.poll(0, TimeUnit.SECONDS).project(), is("project 2"));
+        assertThat(resumed.poll(0, TimeUnit.SECONDS), is(nullValue()));
+
+        for (int i = 0; i < ChangeFeed.HISTORY_SIZE; i++) {
+            feed.projectCreated("later " + i);
+        }
+        ChangeFeed.Subscription tooLate = feed.subscribe(feed.eventId(1));
+        assertThat(tooLate.poll(0, TimeUnit.SECONDS).type(), is(ChangeEvent.Type.RESET));
+        assertThat(tooLate.poll(0, TimeUnit.SECONDS), is(nullValue()));
+    }
+
+    @Test
+    void resets_clients_that_missed_more_events_than_their_queue_holds() throws InterruptedException {
+        for (int i = 0; i <= ChangeFeed.SUBSCRIBER_QUEUE_SIZE; i++) {
+            feed.projectCreated("project " + i);
+        }
+
+        ChangeFeed.Subscription resumed = feed.subscribe(feed.eventId(0));
+        ChangeEvent reset = resumed.poll(0, TimeUnit.SECONDS);
+        assertThat(reset.type(), is(ChangeEvent.Type.RESET));
+        assertThat(reset.id(), is((long) ChangeFeed.SUBSCRIBER_QUEUE_SIZE + 1));
+        assertThat(resumed.poll(0, TimeUnit.SECONDS), is(nullValue()));
+
+        ChangeFeed.Subscription justInTime = feed.subscribe(feed.eventId(1));
+        for (int i = 1; i <= ChangeFeed.SUBSCRIBER_QUEUE_SIZE; i++) {
+            assertThat(justInTime.poll(0, TimeUnit.SECONDS).project(), is("project " + i));
+        }
+        assertThat(justInTime.poll(0, TimeUnit.SECONDS), is(nullValue()));
+    }
+
+    @Test
+    void resets_clients_that_resume_with_an_id_from_before_a_restart() throws InterruptedException {
+        ChangeFeed previous = new ChangeFeed();
+        for (int i = 0; i < 3; i++) {
+            previous.projectCreated("before " + i);
+        }
+        for (int i = 0; i < 5; i++) {
+            feed.projectCreated("after " + i);
+        }
+
+        ChangeFeed.Subscription resumed = feed.subscribe(previous.eventId(3));
+        assertThat(resumed.poll(0, TimeUnit.SECONDS).type(), is(ChangeEvent.Type.RESET));
+        assertThat(resumed.poll(0, TimeUnit.SECONDS), is(nullValue()));
+    }
+
+    @Test
+    void a_subscriber_that_falls_behind_is_closed_without_blocking_the_publisher() throws InterruptedException {
+        ChangeFeed.Subscription slow = feed.subscribe(null);
+        for (int i = 0; i <= ChangeFeed.SUBSCRIBER_QUEUE_SIZE; i++) {
+            feed.projectCreated("project " + i);
+        }
+
+        assertThat(slow.isClosed(), is(true));
+        assertThat(feed.subscriberCount(), is(0));
+        for (int i = 0; i < ChangeFeed.SUBSCRIBER_QUEUE_SIZE; i++) {
+            slow.poll(0, TimeUnit.SECONDS);
+        }
+        assertThrows(IllegalStateException.class, () -> slow.poll(0, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void listeners_hear_of_every_event_and_of_the_close() {
+        ChangeFeed.Subscription subscription = feed.subscribe(null);
+        AtomicInteger signals = new AtomicInteger();
+        subscription.onEvent(signals::incrementAndGet);
+
+        feed.projectCreated("secrets");
+        assertThat(signals.get(), is(1));
+        assertThat(subscription.poll().project(), is("secrets"));
+        assertThat(subscription.poll(), is(nullValue()));
+
+        subscription.close();
+        assertThat(signals.get(), is(2));
+        assertThrows(IllegalStateException.class, subscription::poll);
+    }
+}
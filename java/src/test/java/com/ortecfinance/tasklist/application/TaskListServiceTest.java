@@ -0,0 +1,136 @@
+package com.ortecfinance.tasklist.application;
+
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import com.ortecfinance.tasklist.domain.task.Task;
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+import com.ortecfinance.tasklist.exceptions.InvalidRequestException;
+import io.micrometer.core.instrument.Metrics;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskListServiceTest {
+
+    private final TaskRepository taskRepository = new TaskRepository();
+    private final TaskListService service = new TaskListService(taskRepository, new ProjectRepository());
+
+    @Test
+    void batches_report_failed_items_without_stopping_the_rest() {
+        service.createProject("secrets");
+
+        List<BatchResult> created = service.addTasksToProjects(List.of(
+                new NewTask("secrets", "Eat more donuts."),
+                new NewTask("training", "Four Elements of Simple Design"),
+                new NewTask("secrets", "Destroy all humans.")));
+        assertThat(created, contains(
+                new BatchResult(1L, null),
+                new BatchResult(null, "Could not find a project with the name \"training\"."),
+                new BatchResult(2L, null)));
+
+        List<BatchResult> changed = service.changeStatusOnTasks(List.of(new StatusChange(2, true), new StatusChange(3, true)));
+        assertThat(changed.get(0), is(new BatchResult(2L, null)));
+        assertThat(changed.get(1).error(), is("Could not find a task with an ID of 3."));
+
+        List<BatchResult> deadlines = service.setDeadlineOnTasks(List.of(
+                DeadlineChange.unreadable(2, "Text '31-02' could not be parsed."),
+                new DeadlineChange(1, LocalDate.of(2026, 3, 1))));
+        assertThat(deadlines, contains(
+                new BatchResult(null, "Text '31-02' could not be parsed."),
+                new BatchResult(1L, null)));
+        assertThat(taskRepository.findById(1).orElseThrow().getDueDate(), is(LocalDate.of(2026, 3, 1)));
+        assertThat(taskRepository.findById(2).orElseThrow().getDueDate(), is(nullValue()));
+
+        LocalDate farFuture = LocalDate.of(9_999_999, 1, 1);
+        assertThat(service.setDeadlineOnTasks(List.of(new DeadlineChange(1, farFuture))).get(0).error(),
+                startsWith("The due date must be between"));
+        assertThrows(InvalidRequestException.class, () -> service.setDeadlineOnTask(1, farFuture));
+        assertThat(taskRepository.findById(1).orElseThrow().getDueDate(), is(LocalDate.of(2026, 3, 1)));
+        assertThat(taskRepository.findById(2).orElseThrow().isDone(), is(true));
+    }
+
+    @Test
+    void streams_pull_tasks_one_at_a_time_rather_than_a_group_at_once() {
+        service.createProject("secrets");
+        service.addTaskToProject("secrets", "Eat more donuts.");
+        service.addTaskToProject("secrets", "Destroy all humans.");
+
+        Iterator<Task> byProject = service.streamTasksByProject().iterator();
+        Iterator<Task> byDueDate = service.streamTasksByDueDate().iterator();
+        assertThat(byProject.next().getId(), is(1L));
+        assertThat(byDueDate.next().getId(), is(1L));
+
+        //a group read in full up front would not see a task added after its first one was returned
+        service.addTaskToProject("secrets", "Take over the world.");
+        List<Long> restByProject = new ArrayList<>();
+        byProject.forEachRemaining(task -> restByProject.add(task.getId()));
+        List<Long> restByDueDate = new ArrayList<>();
+        byDueDate.forEachRemaining(task -> restByDueDate.add(task.getId()));
+        assertThat(restByProject, contains(2L, 3L));
+        assertThat(restByDueDate, contains(2L, 3L));
+    }
+
+    @Test
+    void status_pages_continue_after_the_last_id_and_end_past_the_largest() {
+        service.createProject("secrets");
+        service.addTaskToProject("secrets", "Eat more donuts.");
+        service.addTaskToProject("secrets", "Destroy all humans.");
+        service.addTaskToProject("secrets", "Take over the world.");
+        service.changeStatusOnTask(2, true);
+
+        assertThat(service.getTasksByStatus(false, "secrets", 1, 10), contains(hasProperty("id", is(3L))));
+        assertThat(service.getTasksByStatus(true, null, 0, 10), contains(hasProperty("id", is(2L))));
+        assertThat(service.getTasksByStatus(false, null, Long.MAX_VALUE, 10), is(empty()));
+    }
+
+    @Test
+    void view_versions_only_move_when_their_view_can_change() {
+        service.createProject("secrets");
+        ViewVersion byProject = service.getTasksByProjectVersion();
+        ViewVersion byDueDate = service.getTasksByDueDateVersion();
+
+        service.createProject("training");
+        assertThat(service.getTasksByProjectVersion().tag(), is(not(byProject.tag())));
+        assertThat(service.getTasksByDueDateVersion(), is(byDueDate));
+
+        service.addTaskToProject("secrets", "Eat more donuts.");
+        assertThat(service.getTasksByDueDateVersion().tag(), is(not(byDueDate.tag())));
+
+        TaskListService restarted = new TaskListService(new TaskRepository(), new ProjectRepository());
+        assertThat(restarted.getTasksByDueDateVersion().tag(), is(not(byDueDate.tag())));
+    }
+
+    @Test
+    void the_feed_reports_each_task_change_with_the_state_it_left_behind() throws InterruptedException {
+        ChangeFeed feed = new ChangeFeed();
+        TaskListService feeding = new TaskListService(taskRepository, new ProjectRepository(), Metrics.globalRegistry, feed);
+        feeding.createProject("secrets");
+        feeding.addTaskToProject("secrets", "Eat more donuts.");
+        ChangeFeed.Subscription subscription = feed.subscribe(null);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            boolean done = i % 2 == 0;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int change = 0; change < 100; change++) {
+                    feeding.changeStatusOnTask(1, done);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        ChangeEvent last = null;
+        for (ChangeEvent event; (event = subscription.poll()) != null; last = event) {
+            assertThat(event.type(), is(event.task().isDone() ? ChangeEvent.Type.TASK_CHECKED : ChangeEvent.Type.TASK_UNCHECKED));
+        }
+        assertThat(last.task().isDone(), is(taskRepository.findById(1).orElseThrow().isDone()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.ortecfinance.tasklist.domain.project;
+
+import com.ortecfinance.tasklist.exceptions.DuplicateRecordException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProjectRepositoryTest {
+
+    @Test
+    void projects_get_ids_in_creation_order_without_gaps() {
+        ProjectRepository repository = new ProjectRepository();
+        for (int i = 0; i < 40; i++) { //grows the id table twice
+            repository.create("project " + i);
+        }
+        assertThrows(DuplicateRecordException.class, () -> repository.create("project 3"));
+
+        Project project = repository.create("secrets");
+        assertThat(project.getId(), is(41));
+        assertThat(repository.findById(41).orElseThrow(), is(sameInstance(project)));
+        assertThat(repository.findById(4).orElseThrow().getName(), is("project 3"));
+        assertThat(repository.findById(Project.NO_ID).isPresent(), is(false));
+        assertThat(repository.findById(42).isPresent(), is(false));
+        assertThat(repository.findAll(), hasSize(41));
+        assertThat(repository.findAll().get(40), is(project));
+    }
+
+    @Test
+    void concurrent_creations_get_unique_ids_and_only_one_of_them_a_name() throws Exception {
+        ProjectRepository repository = new ProjectRepository();
+        AtomicInteger duplicates = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int thread = 0; thread < 8; thread++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        try {
+                            repository.create("project " + i);
+                        } catch (DuplicateRecordException exception) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+
+        assertThat(duplicates.get(), is(7 * 1000));
+        List<Project> projects = repository.findAll();
+        assertThat(projects.stream().map(Project::getId).toList(),
+                is(IntStream.rangeClosed(1, 1000).boxed().toList()));
+        for (Project project : projects) {
+            assertThat(repository.findByName(project.getName()).orElseThrow(), is(sameInstance(project)));
+        }
+    }
+}
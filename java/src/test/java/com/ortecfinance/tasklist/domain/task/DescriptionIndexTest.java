@@ -0,0 +1,64 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import com.ortecfinance.tasklist.domain.project.Project;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class DescriptionIndexTest {
+
+    private final DescriptionIndex index = new DescriptionIndex();
+    private final Map<Long, Task> tasks = new HashMap<>();
+
+    @Test
+    void every_word_of_the_query_must_match_a_word_or_its_start() {
+        add(1, "Eat more donuts.");
+        add(2, "Destroy all humans.");
+        add(3, "Eat humans, then donuts");
+
+        assertThat(ids(index.search("DONUT", 10, tasks::get)), contains(1L, 3L));
+        assertThat(ids(index.search("eat hum", 10, tasks::get)), contains(3L));
+        assertThat(ids(index.search("cookies", 10, tasks::get)), is(empty()));
+        assertThat(ids(index.search("  ", 10, tasks::get)), is(empty()));
+    }
+
+    @Test
+    void whole_and_rare_words_rank_first() {
+        add(1, "Review the reviewer guide");
+        add(2, "Review the code");
+        add(3, "Write the review checklist");
+        add(4, "Reviews are due");
+
+        assertThat(ids(index.search("review", 10, tasks::get)), contains(1L, 2L, 3L, 4L));
+        assertThat(ids(index.search("the review", 2, tasks::get)), contains(1L, 2L));
+        assertThat(ids(index.search("code", 10, tasks::get)), contains(2L));
+    }
+
+    @Test
+    void tasks_added_from_many_threads_are_all_found() {
+        IntStream.range(0, 8).parallel().forEach(thread -> {
+            for (long id = 10_000 - thread; id > 0; id -= 8) { //descending, so most adds insert rather than append
+                index.add(id, "shared word" + id % 3);
+            }
+        });
+
+        assertThat(index.search("shared", 20_000, id -> new Task(id, Project.NO_ID, "")).size(), is(10_000));
+        assertThat(index.search("shared word1", 20_000, id -> new Task(id, Project.NO_ID, "")).size(), is(3334));
+        assertThat(index.size(), is(4));
+    }
+
+    private void add(long id, String description) {
+        tasks.put(id, new Task(id, Project.NO_ID, description));
+        index.add(id, description);
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class MappedTaskStorageTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void repository_sees_changes_made_through_copies_of_mapped_tasks() throws IOException {
+        try (TaskStorage storage = TaskStorage.mapped(directory)) {
+            TaskRepository repository = new TaskRepository(storage);
+            Project project = new ProjectRepository().create("secrets");
+            for (int i = 0; i < 70_000; i++) { //spans two chunks
+                repository.save(new Task(repository.nextId(), project.getId(), "task " + i));
+            }
+
+            Task task = repository.findById(65_537).orElseThrow();
+            repository.changeStatus(task, true);
+            repository.changeDueDate(task, LocalDate.of(2026, 1, 31));
+
+            Task stored = repository.findById(65_537).orElseThrow();
+            assertThat(stored.getDescription(), is("task 65536"));
+            assertThat(stored.isDone(), is(true));
+            assertThat(stored.getDueDate(), is(LocalDate.of(2026, 1, 31)));
+            assertThat(stored.getProjectId(), is(project.getId()));
+
+            List<Task> due = repository.findAllGroupedByDueDate().get(LocalDate.of(2026, 1, 31));
+            assertThat(due, hasSize(1));
+            assertThat(due.get(0).isDone(), is(true));
+            assertThat(repository.findAllByProject(project).get(65_536).isDone(), is(true));
+            assertThat(repository.findAll(), hasSize(70_000));
+        }
+    }
+
+    @Test
+    void indexing_a_mapped_task_takes_bytes_rather_than_objects_on_the_heap() throws IOException {
+        int count = 500_000;
+        try (TaskStorage storage = TaskStorage.mapped(directory)) {
+            TaskRepository repository = new TaskRepository(storage);
+            Project project = new ProjectRepository().create("secrets");
+            long before = usedHeap();
+            for (int i = 0; i < count; i++) {
+                repository.save(new Task(repository.nextId(), project.getId(), "", false, LocalDate.of(2026, 1, 1 + i % 28)));
+            }
+            long perTask = (usedHeap() - before) / count;
+
+            //about 30 bytes, where a boxed id and a skip list node in both buckets made it about 145
+            assertThat(perTask, is(lessThan(80L)));
+            assertThat(repository.findAllByProject(project), hasSize(count));
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,84 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TaskBitmapTest {
+
+    @Test
+    void chunks_switch_between_arrays_and_bits_without_losing_ids() {
+        TaskBitmap evens = new TaskBitmap();
+        TaskBitmap thirds = new TaskBitmap();
+        for (long id = 0; id < 200_000; id++) {
+            if (id % 2 == 0) {
+                evens.add(id);
+            }
+            if (id % 3 == 0) {
+                thirds.add(id);
+            }
+        }
+        assertThat(evens.add(10), is(false));
+        assertThat(evens.cardinality(), is(100_000));
+        assertThat(evens.andCardinality(thirds), is(33_334));
+
+        for (long id = 0; id < 65_536; id += 2) {
+            evens.remove(id); //empties the first chunk, turning it back into an array on the way
+        }
+        assertThat(evens.contains(65_534), is(false));
+        assertThat(evens.contains(65_536), is(true));
+        assertThat(evens.cardinality(), is(100_000 - 32_768));
+        assertThat(evens.next(0), is(65_536L));
+    }
+
+    @Test
+    void select_keeps_the_ids_in_or_not_in_the_other_bitmap_for_every_kind_of_chunk() {
+        TaskBitmap tasks = new TaskBitmap();
+        TaskBitmap done = new TaskBitmap();
+        for (long id = 0; id < 5 * 65_536; id++) {
+            long chunk = id >>> 16;
+            if (chunk % 2 == 0 || id % 97 == 0) { //chunks 0, 2 and 4 as bits, 1 and 3 as arrays
+                tasks.add(id);
+            }
+            if (chunk != 4 && (chunk < 2 ? id % 3 == 0 : id % 101 == 0)) { //bits, then arrays, then no chunk at all
+                done.add(id);
+            }
+        }
+
+        for (boolean inDone : new boolean[]{true, false}) {
+            for (long from : new long[]{0, 40_000, 65_536 + 7, 4 * 65_536 + 100}) {
+                List<Long> expected = new ArrayList<>();
+                for (long id = tasks.next(from); id >= 0; id = tasks.next(id + 1)) {
+                    if (done.contains(id) == inDone) {
+                        expected.add(id);
+                    }
+                }
+                List<Long> selected = new ArrayList<>();
+                for (long id : tasks.select(done, inDone, from, Integer.MAX_VALUE)) {
+                    selected.add(id);
+                }
+                assertThat(selected, is(expected));
+                assertThat(tasks.select(done, inDone, from, 10).length, is(Math.min(10, expected.size())));
+            }
+        }
+    }
+
+    @Test
+    void next_walks_the_ids_in_order_across_chunks() {
+        TaskBitmap bitmap = new TaskBitmap();
+        for (long id : new long[]{5_000_000_000L, 3, 70_000, 65_535, 4}) {
+            bitmap.add(id);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (long id = bitmap.next(0); id >= 0; id = bitmap.next(id + 1)) {
+            ids.add(id);
+        }
+        assertThat(ids, contains(3L, 4L, 65_535L, 70_000L, 5_000_000_000L));
+        assertThat(bitmap.next(5_000_000_001L), is(-1L));
+    }
+}
@@ -0,0 +1,34 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TaskIndexTest {
+
+    @Test
+    void finds_tasks_after_the_table_has_grown() {
+        TaskIndex index = new TaskIndex();
+        for (long id = 1; id <= 10_000; id++) {
+            index.put(id, new Task(id, "task " + id, false));
+        }
+
+        assertThat(index.size(), is(10_000));
+        assertThat(index.get(1).getDescription(), is("task 1"));
+        assertThat(index.get(9_999).getDescription(), is("task 9999"));
+        assertThat(index.get(10_001), is(nullValue()));
+    }
+
+    @Test
+    void replaces_a_task_with_the_same_id() {
+        TaskIndex index = new TaskIndex();
+        Task original = new Task(42, "original", false);
+        Task replacement = new Task(42, "replacement", true);
+
+        assertThat(index.put(42, original), is(nullValue()));
+        assertThat(index.put(42, replacement), is(sameInstance(original)));
+        assertThat(index.get(42), is(sameInstance(replacement)));
+        assertThat(index.size(), is(1));
+    }
+}
@@ -0,0 +1,99 @@
+package com.ortecfinance.tasklist.domain.task;
+
+import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TaskRepositoryTest {
+    private static final int THREADS = 8;
+    private static final int TASKS_PER_THREAD = 5_000;
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void concurrent_saves_and_changes_leave_every_index_complete(boolean mapped) throws Exception {
+        try (TaskStorage storage = mapped ? TaskStorage.mapped(directory) : TaskStorage.onHeap()) {
+            TaskRepository repository = new TaskRepository(storage);
+            ProjectRepository projects = new ProjectRepository();
+            Project secrets = projects.create("secrets");
+            Project training = projects.create("training");
+
+            List<Future<List<Task>>> results = new ArrayList<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+                for (int thread = 0; thread < THREADS; thread++) {
+                    results.add(executor.submit(() -> saveAndChange(repository, secrets, training)));
+                }
+            }
+            List<Task> expected = new ArrayList<>();
+            for (Future<List<Task>> result : results) {
+                expected.addAll(result.get()); //rethrows whatever a thread ran into
+            }
+
+            Set<Long> ids = new HashSet<>();
+            expected.forEach(task -> ids.add(task.getId()));
+            assertThat(ids, hasSize(THREADS * TASKS_PER_THREAD));
+            assertThat(repository.findAll(), hasSize(THREADS * TASKS_PER_THREAD));
+
+            for (Project project : List.of(secrets, training)) {
+                List<Task> inProject = expected.stream().filter(task -> task.getProjectId() == project.getId()).toList();
+                assertThat(repository.findAllByProject(project), hasSize(inProject.size()));
+                assertThat(repository.countByProject(project),
+                        is(new TaskCounts(inProject.size(), (int) inProject.stream().filter(Task::isDone).count())));
+            }
+
+            int grouped = 0;
+            for (Map.Entry<LocalDate, List<Task>> group : repository.findAllGroupedByDueDate().entrySet()) {
+                LocalDate dueDate = group.getKey().equals(TaskRepository.NO_DEADLINE) ? null : group.getKey();
+                for (Task task : group.getValue()) {
+                    assertThat(task.getDueDate(), is(dueDate));
+                }
+                grouped += group.getValue().size();
+            }
+            assertThat(grouped, is(THREADS * TASKS_PER_THREAD));
+            for (Task task : expected) {
+                Task stored = repository.findById(task.getId()).orElseThrow();
+                assertThat(stored.isDone(), is(task.isDone()));
+                assertThat(stored.getDueDate(), is(task.getDueDate()));
+            }
+        }
+    }
+
+    /**
+     * Saves tasks and changes earlier ones of this thread, returning the tasks as this thread left them.
+     */
+    private static List<Task> saveAndChange(TaskRepository repository, Project secrets, Project training) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Task> saved = new ArrayList<>(TASKS_PER_THREAD);
+        for (int i = 0; i < TASKS_PER_THREAD; i++) {
+            Project project = random.nextBoolean() ? secrets : training;
+            saved.add(repository.save(new Task(repository.nextId(), project.getId(), "task " + i)));
+
+            Task earlier = repository.findById(saved.get(random.nextInt(saved.size())).getId()).orElseThrow();
+            if (random.nextBoolean()) {
+                repository.changeStatus(earlier, !earlier.isDone());
+            } else {
+                repository.changeDueDate(earlier, random.nextBoolean() ? null : LocalDate.of(2026, 1, 1 + random.nextInt(28)));
+            }
+        }
+        return saved.stream().map(task -> repository.findById(task.getId()).orElseThrow()).toList();
+    }
+}
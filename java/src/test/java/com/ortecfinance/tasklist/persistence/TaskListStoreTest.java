@@ -0,0 +1,68 @@
+package com.ortecfinance.tasklist.persistence;
+
+import com.ortecfinance.tasklist.application.TaskListService;
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TaskListStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void restarts_from_the_latest_snapshot_plus_the_log_written_after_it() throws IOException {
+        PersistenceProperties properties = new PersistenceProperties(true, directory, FsyncPolicy.OS, Duration.ZERO, Duration.ofDays(1), DataSize.ofGigabytes(1));
+
+        TaskRepository taskRepository = new TaskRepository();
+        ProjectRepository projectRepository = new ProjectRepository();
+        try (TaskListStore store = TaskListStore.open(properties, projectRepository, taskRepository)) {
+            TaskListService service = new TaskListService(taskRepository, projectRepository);
+            service.createProject("secrets");
+            for (int i = 0; i < 100_000; i++) {
+                service.addTaskToProject("secrets", "Task " + i);
+            }
+            service.changeStatusOnTask(7, true);
+            service.setDeadlineOnTask(8, LocalDate.of(2025, 11, 21));
+
+            store.snapshot();
+
+            service.createProject("training");
+            service.addTaskToProject("training", "SOLID");
+            service.changeStatusOnTask(7, false);
+            service.changeStatusOnTask(9, true);
+        }
+        assertThat(files(), contains("snapshot-0000000000000001.bin", "wal-0000000000000001.log"));
+
+        TaskRepository restoredTasks = new TaskRepository();
+        ProjectRepository restoredProjects = new ProjectRepository();
+        try (TaskListStore ignored = TaskListStore.open(properties, restoredProjects, restoredTasks)) {
+            assertThat(restoredTasks.findAll(), hasSize(100_001));
+            assertThat(restoredTasks.findById(7).orElseThrow().isDone(), is(false));
+            assertThat(restoredTasks.findById(8).orElseThrow().getDueDate(), is(LocalDate.of(2025, 11, 21)));
+            assertThat(restoredTasks.findById(9).orElseThrow().isDone(), is(true));
+            int trainingId = restoredTasks.findById(100_001).orElseThrow().getProjectId();
+            assertThat(restoredProjects.findById(trainingId).orElseThrow().getName(), is("training"));
+            assertThat(restoredProjects.findAll(), hasSize(2));
+            assertThat(restoredTasks.nextId(), is(100_002L));
+        }
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+}
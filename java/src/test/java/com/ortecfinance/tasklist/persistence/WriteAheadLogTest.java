@@ -0,0 +1,120 @@
+package com.ortecfinance.tasklist.persistence;
+
+import com.ortecfinance.tasklist.application.NewTask;
+import com.ortecfinance.tasklist.application.TaskListService;
+import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import com.ortecfinance.tasklist.domain.task.Task;
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+class WriteAheadLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void restores_projects_tasks_and_their_changes() throws IOException {
+        long id;
+        try (WriteAheadLog log = WriteAheadLog.open(directory, 0, FsyncPolicy.GROUP, Duration.ofMillis(1))) {
+            TaskListService service = journaledService(log, new ProjectRepository(), new TaskRepository());
+            service.createProject("secrets");
+            id = service.addTaskToProject("secrets", "Eat more donuts.").getId();
+            service.addTaskToProject("secrets", "Destroy all humans.");
+            service.changeStatusOnTask(id, true);
+            service.setDeadlineOnTask(id, LocalDate.of(2025, 11, 25));
+        }
+
+        ProjectRepository projectRepository = new ProjectRepository();
+        TaskRepository taskRepository = new TaskRepository();
+        assertThat(WriteAheadLog.replay(directory, 0, projectRepository, taskRepository), is(1L));
+
+        Task task = taskRepository.findById(id).orElseThrow();
+        assertThat(task.getDescription(), is("Eat more donuts."));
+        assertThat(task.isDone(), is(true));
+        assertThat(task.getDueDate(), is(LocalDate.of(2025, 11, 25)));
+        assertThat(task.getProjectId(), is(projectRepository.findByName("secrets").orElseThrow().getId()));
+        assertThat(taskRepository.findAll(), hasSize(2));
+    }
+
+    @Test
+    void a_batch_waits_for_one_group_commit_rather_than_one_per_task() throws IOException {
+        List<NewTask> newTasks = IntStream.range(0, 5000)
+                .mapToObj(i -> new NewTask("secrets", "task " + i))
+                .toList();
+        try (WriteAheadLog log = WriteAheadLog.open(directory, 0, FsyncPolicy.GROUP, Duration.ofMillis(100))) {
+            TaskListService service = journaledService(log, new ProjectRepository(), new TaskRepository());
+            service.createProject("secrets");
+            assertTimeout(Duration.ofSeconds(10), () -> service.addTasksToProjects(newTasks)); //a group commit per task would take 500 s
+        }
+
+        TaskRepository restored = new TaskRepository();
+        WriteAheadLog.replay(directory, 0, new ProjectRepository(), restored);
+        assertThat(restored.findAll(), hasSize(5000));
+        assertThat(restored.findById(5000).orElseThrow().getDescription(), is("task 4999"));
+    }
+
+    @Test
+    void drops_a_torn_record_at_the_end_of_a_segment() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(directory, 0, FsyncPolicy.ALWAYS, Duration.ZERO)) {
+            journaledService(log, new ProjectRepository(), new TaskRepository()).createProject("training");
+        }
+        Files.write(directory.resolve("wal-0000000000000000.log"), new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        ProjectRepository projectRepository = new ProjectRepository();
+        TaskRepository taskRepository = new TaskRepository();
+        long nextSequence = WriteAheadLog.replay(directory, 0, projectRepository, taskRepository);
+        try (WriteAheadLog log = WriteAheadLog.open(directory, nextSequence, FsyncPolicy.OS, Duration.ZERO)) {
+            journaledService(log, projectRepository, taskRepository).addTaskToProject("training", "SOLID");
+        }
+
+        TaskRepository restored = new TaskRepository();
+        WriteAheadLog.replay(directory, 0, new ProjectRepository(), restored);
+        assertThat(restored.findAll(), contains(hasProperty("description", is("SOLID"))));
+    }
+
+    @Test
+    void projects_created_concurrently_keep_their_ids() throws Exception {
+        ProjectRepository projectRepository = new ProjectRepository();
+        try (WriteAheadLog log = WriteAheadLog.open(directory, 0, FsyncPolicy.GROUP, Duration.ofMillis(1))) {
+            projectRepository.setJournal(log);
+            List<Thread> threads = IntStream.range(0, 8)
+                    .mapToObj(thread -> Thread.ofPlatform().start(() -> {
+                        for (int i = 0; i < 50; i++) {
+                            projectRepository.create("project " + thread + "-" + i);
+                        }
+                    }))
+                    .toList();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        ProjectRepository restored = new ProjectRepository();
+        WriteAheadLog.replay(directory, 0, restored, new TaskRepository());
+        assertThat(restored.findAll(), hasSize(400));
+        for (Project project : projectRepository.findAll()) {
+            assertThat(restored.findById(project.getId()).orElseThrow().getName(), is(project.getName()));
+        }
+        assertThat(restored.create("secrets").getId(), is(401));
+    }
+
+    private static TaskListService journaledService(WriteAheadLog log, ProjectRepository projectRepository, TaskRepository taskRepository) {
+        projectRepository.setJournal(log);
+        taskRepository.setJournal(log);
+        return new TaskListService(taskRepository, projectRepository);
+    }
+}
@@ -0,0 +1,160 @@
+package com.ortecfinance.tasklist.transfer;
+
+import com.ortecfinance.tasklist.application.ChangeEvent;
+import com.ortecfinance.tasklist.application.ChangeFeed;
+import com.ortecfinance.tasklist.application.TaskListService;
+import com.ortecfinance.tasklist.domain.project.Project;
+import com.ortecfinance.tasklist.domain.project.ProjectRepository;
+import com.ortecfinance.tasklist.domain.task.Task;
+import com.ortecfinance.tasklist.domain.task.TaskRepository;
+import com.ortecfinance.tasklist.exceptions.InvalidRequestException;
+import com.ortecfinance.tasklist.persistence.FsyncPolicy;
+import com.ortecfinance.tasklist.persistence.PersistenceProperties;
+import com.ortecfinance.tasklist.persistence.TaskListStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+class TaskListTransferTest {
+
+    @ParameterizedTest
+    @EnumSource(TransferFormat.class)
+    void exported_task_list_imports_into_an_empty_one(TransferFormat format) throws IOException {
+        ProjectRepository projectRepository = new ProjectRepository();
+        TaskRepository taskRepository = new TaskRepository();
+        Project secrets = projectRepository.create("secrets, \"top\"");
+        projectRepository.create("empty");
+        taskRepository.save(new Task(taskRepository.nextId(), secrets.getId(), "Eat more donuts.\nMany.", true, LocalDate.of(2026, 5, 1)));
+        taskRepository.save(new Task(taskRepository.nextId(), secrets.getId(), "", false, null));
+        for (int i = 0; i < 100_000; i++) {
+            taskRepository.save(new Task(taskRepository.nextId(), secrets.getId(), "task " + i));
+        }
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        new TaskListTransfer(taskRepository, projectRepository).exportTo(Channels.newChannel(exported), format);
+
+        ProjectRepository importedProjects = new ProjectRepository();
+        TaskRepository importedTasks = new TaskRepository();
+        ChangeFeed feed = new ChangeFeed();
+        ChangeFeed.Subscription subscription = feed.subscribe(null);
+        ImportSummary summary = new TaskListTransfer(importedTasks, importedProjects, feed)
+                .importFrom(Channels.newChannel(new ByteArrayInputStream(exported.toByteArray())), format);
+
+        assertThat(summary, is(new ImportSummary(2, 100_002)));
+        assertThat(importedProjects.findAll().stream().map(Project::getName).toList(), contains("secrets, \"top\"", "empty"));
+        List<Task> tasks = importedTasks.findAllByProject(importedProjects.findByName("secrets, \"top\"").orElseThrow());
+        assertThat(tasks, hasSize(100_002));
+        assertThat(tasks.get(0).getDescription(), is("Eat more donuts.\nMany."));
+        assertThat(tasks.get(0).isDone(), is(true));
+        assertThat(tasks.get(0).getDueDate(), is(LocalDate.of(2026, 5, 1)));
+        assertThat(tasks.get(1).getDescription(), is(""));
+        assertThat(tasks.get(100_001).getId(), is(100_002L));
+        assertThat(importedTasks.nextId(), is(100_003L));
+        for (int batch = 0; batch < 11; batch++) {
+            assertThat(subscription.poll().type(), is(ChangeEvent.Type.RESET));
+        }
+        assertThat(subscription.poll(), is(nullValue()));
+    }
+
+    @Test
+    void kept_ids_never_collide_with_tasks_created_during_the_import() throws Exception {
+        ProjectRepository sourceProjects = new ProjectRepository();
+        TaskRepository sourceTasks = new TaskRepository();
+        Project imported = sourceProjects.create("imported");
+        for (int i = 0; i < 50_000; i++) {
+            //above the ids the live tasks start from, so the import keeps them and races the live tasks for the next ones
+            sourceTasks.save(new Task(1_000_000 + i, imported.getId(), "imported " + i));
+        }
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        new TaskListTransfer(sourceTasks, sourceProjects).exportTo(Channels.newChannel(exported), TransferFormat.NDJSON);
+
+        ProjectRepository projectRepository = new ProjectRepository();
+        TaskRepository taskRepository = new TaskRepository();
+        TaskListService service = new TaskListService(taskRepository, projectRepository);
+        service.createProject("live");
+        AtomicBoolean importing = new AtomicBoolean(true);
+        AtomicInteger created = new AtomicInteger();
+        Thread creator = new Thread(() -> {
+            while (importing.get()) {
+                service.addTaskToProject("live", "live " + created.incrementAndGet());
+            }
+        });
+        creator.start();
+        while (created.get() < 1000) {
+            Thread.onSpinWait(); //creating at full speed before the import starts
+        }
+        try {
+            new TaskListTransfer(taskRepository, projectRepository)
+                    .importFrom(Channels.newChannel(new ByteArrayInputStream(exported.toByteArray())), TransferFormat.NDJSON);
+        } finally {
+            importing.set(false);
+            creator.join();
+        }
+
+        Collection<Task> tasks = taskRepository.findAll();
+        assertThat(tasks, hasSize(50_000 + created.get()));
+        assertThat(tasks.stream().map(Task::getId).distinct().count(), is((long) tasks.size()));
+        assertThat(taskRepository.findAllByProject(projectRepository.findByName("imported").orElseThrow()), hasSize(50_000));
+        assertThat(taskRepository.findAllByProject(projectRepository.findByName("live").orElseThrow()), hasSize(created.get()));
+    }
+
+    @Test
+    void rejects_ids_outside_the_range_tasks_are_addressed_by() {
+        TaskListTransfer transfer = new TaskListTransfer(new TaskRepository(), new ProjectRepository());
+        for (long id : new long[]{0, -1, Long.MAX_VALUE}) {
+            byte[] row = ("{\"project\":\"secrets\",\"id\":" + id + ",\"description\":\"Eat more donuts.\"}").getBytes(StandardCharsets.UTF_8);
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                    () -> transfer.importFrom(Channels.newChannel(new ByteArrayInputStream(row)), TransferFormat.NDJSON));
+            assertThat(exception.getMessage(), containsString("the id must be between 1 and"));
+        }
+    }
+
+    @Test
+    void imports_into_a_persistent_task_list_with_one_durability_wait_per_batch(@TempDir Path directory) throws IOException {
+        ProjectRepository projectRepository = new ProjectRepository();
+        TaskRepository taskRepository = new TaskRepository();
+        Project secrets = projectRepository.create("secrets");
+        for (int i = 0; i < 100_000; i++) {
+            taskRepository.save(new Task(taskRepository.nextId(), secrets.getId(), "task " + i));
+        }
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        new TaskListTransfer(taskRepository, projectRepository).exportTo(Channels.newChannel(exported), TransferFormat.NDJSON);
+
+        PersistenceProperties properties = new PersistenceProperties(true, directory, FsyncPolicy.GROUP, Duration.ofMillis(50), Duration.ofDays(1), DataSize.ofGigabytes(1));
+        ProjectRepository persistentProjects = new ProjectRepository();
+        TaskRepository persistentTasks = new TaskRepository();
+        try (TaskListStore ignored = TaskListStore.open(properties, persistentProjects, persistentTasks)) {
+            TaskListTransfer transfer = new TaskListTransfer(persistentTasks, persistentProjects);
+            //a group commit per task would take over an hour
+            ImportSummary summary = assertTimeout(Duration.ofSeconds(30), () -> transfer.importFrom(
+                    Channels.newChannel(new ByteArrayInputStream(exported.toByteArray())), TransferFormat.NDJSON));
+            assertThat(summary, is(new ImportSummary(1, 100_000)));
+        }
+
+        TaskRepository restoredTasks = new TaskRepository();
+        try (TaskListStore ignored = TaskListStore.open(properties, new ProjectRepository(), restoredTasks)) {
+            assertThat(restoredTasks.findAll(), hasSize(100_000));
+            assertThat(restoredTasks.findById(100_000).orElseThrow().getDescription(), is("task 99999"));
+        }
+    }
+}